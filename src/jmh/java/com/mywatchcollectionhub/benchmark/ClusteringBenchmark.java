@@ -0,0 +1,55 @@
+package com.mywatchcollectionhub.benchmark;
+
+import com.mywatchcollectionhub.service.ImageClusteringService;
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the DBSCAN core, {@link ImageClusteringService#cluster}, i.e. the
+ * region queries and cluster expansion, on synthetic feature sets of
+ * growing collection size with the default neighbour index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ClusteringBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int size;
+
+    private FeatureMatrix features;
+    private ImageClusteringService service;
+
+    @Setup
+    public void setUp() {
+        features = SyntheticData.features(size, 11);
+        service = new ImageClusteringService();
+        service.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public int[] cluster() {
+        return service.cluster(features);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mywatchcollectionhub.benchmark;
+
+import com.mywatchcollectionhub.service.ImageClusteringService;
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures {@link ImageClusteringService#extractFeatures(List)}: decoding
+ * and histogramming of JPEGs at typical web, full HD and phone camera
+ * resolutions, for a single image and for a batch that exercises the
+ * parallel extraction pool.  The persistent feature store is not used, so
+ * every invocation decodes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class FeatureExtractionBenchmark {
+
+    @Param({"640x480", "1920x1080", "4032x3024"})
+    public String resolution;
+
+    @Param({"1", "16"})
+    public int batch;
+
+    private Path dir;
+    private List<File> images;
+    private ImageClusteringService service;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] wh = resolution.split("x");
+        dir = Files.createTempDirectory("jmh-extract");
+        images = SyntheticData.writeImages(dir, batch, Integer.parseInt(wh[0]), Integer.parseInt(wh[1]), 7)
+                .stream().map(Path::toFile).collect(Collectors.toList());
+        service = new ImageClusteringService();
+        service.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        service.shutdown();
+        SyntheticData.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public FeatureMatrix extractFeatures() throws IOException {
+        return service.extractFeatures(images);
+    }
+}
@@ -0,0 +1,58 @@
+package com.mywatchcollectionhub.benchmark;
+
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+import com.mywatchcollectionhub.service.clustering.NeighbourIndex;
+import com.mywatchcollectionhub.service.clustering.NeighbourSearchMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the neighbour search strategies: building an index and running
+ * one region query per point, which is the work DBSCAN does.  The brute
+ * force scan is quadratic, so the 50k size is left out by default; add it
+ * with {@code -p size=50000} when there is time to spare.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class NeighbourIndexBenchmark {
+
+    private static final double EPS = 0.5;
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"BRUTE_FORCE", "VP_TREE"})
+    public NeighbourSearchMode mode;
+
+    private FeatureMatrix features;
+
+    @Setup
+    public void setUp() {
+        features = SyntheticData.features(size, 11);
+    }
+
+    @Benchmark
+    public long regionQueries() {
+        NeighbourIndex index = mode.build(features, EPS);
+        long found = 0;
+        for (int i = 0; i < size; i++) {
+            found += index.neighbours(i).length;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,54 @@
+package com.mywatchcollectionhub.benchmark;
+
+import com.mywatchcollectionhub.service.ImageRecognitionService;
+import com.mywatchcollectionhub.service.ImageRecognitionService.WatchMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ImageRecognitionService#analyzeImages(List)} on clusters
+ * of different sizes.  The current implementation parses file names, so no
+ * image content is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecognitionBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int clusterSize;
+
+    private List<File> cluster;
+    private ImageRecognitionService service;
+
+    @Setup
+    public void setUp() {
+        cluster = new ArrayList<>(clusterSize);
+        for (int i = 0; i < clusterSize; i++) {
+            cluster.add(new File("uploads/rolex_submariner_date_1987_" + i + ".jpg"));
+        }
+        service = new ImageRecognitionService();
+    }
+
+    @Benchmark
+    public WatchMetadata analyzeImages() {
+        return service.analyzeImages(cluster);
+    }
+}
@@ -0,0 +1,89 @@
+package com.mywatchcollectionhub.benchmark;
+
+import com.mywatchcollectionhub.service.ImageStorageService;
+import com.mywatchcollectionhub.service.SimpleMultipartFile;
+import com.mywatchcollectionhub.service.StoredImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ImageStorageService#saveImages(MultipartFile[])} for
+ * batches of synthetic JPEGs.  The service writes to a temporary directory,
+ * never to the {@code uploads} directory of the working directory; every
+ * file written by an invocation is deleted afterwards so repeated runs
+ * neither fill the disk nor hit the collision renaming path, and the
+ * directory is removed at the end of the trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+
+    @Param({"640x480", "4032x3024"})
+    public String resolution;
+
+    @Param({"10", "100"})
+    public int batch;
+
+    private Path dir;
+    private Path uploadRoot;
+    private MultipartFile[] uploads;
+    private ImageStorageService service;
+    private List<StoredImage> saved;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] wh = resolution.split("x");
+        dir = Files.createTempDirectory("jmh-storage");
+        List<Path> files = SyntheticData.writeImages(dir, batch, Integer.parseInt(wh[0]), Integer.parseInt(wh[1]), 3);
+        uploads = new MultipartFile[files.size()];
+        for (int i = 0; i < uploads.length; i++) {
+            uploads[i] = new SimpleMultipartFile(files.get(i).toFile());
+        }
+        uploadRoot = Files.createTempDirectory("jmh-uploads");
+        service = new ImageStorageService(null, uploadRoot);
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteSaved() throws IOException {
+        if (saved != null) {
+            for (StoredImage image : saved) {
+                Files.deleteIfExists(image.getFile().toPath());
+            }
+            saved = null;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        SyntheticData.deleteRecursively(dir);
+        SyntheticData.deleteRecursively(uploadRoot);
+    }
+
+    @Benchmark
+    public List<StoredImage> saveImages() throws IOException {
+        saved = service.saveImages(uploads);
+        return saved;
+    }
+}
@@ -0,0 +1,104 @@
+package com.mywatchcollectionhub.benchmark;
+
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generators for the synthetic images and feature sets the benchmarks run
+ * on.  Everything is seeded so that runs are comparable.
+ */
+final class SyntheticData {
+
+    /** Feature dimension produced by the clustering service. */
+    static final int DIMENSION = 768;
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Write {@code count} JPEG images of the given size to {@code dir}.  Each
+     * image is a random background with a few filled shapes, roughly the
+     * colour structure of a product photo.
+     *
+     * @return the written files
+     */
+    static List<Path> writeImages(Path dir, int count, int width, int height, long seed) throws IOException {
+        Random random = new Random(seed);
+        List<Path> files = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = img.createGraphics();
+            g.setColor(new Color(random.nextInt(0xFFFFFF)));
+            g.fillRect(0, 0, width, height);
+            for (int s = 0; s < 6; s++) {
+                g.setColor(new Color(random.nextInt(0xFFFFFF)));
+                int w = 1 + random.nextInt(width / 2);
+                int h = 1 + random.nextInt(height / 2);
+                g.fillOval(random.nextInt(width - w + 1), random.nextInt(height - h + 1), w, h);
+            }
+            g.dispose();
+            Path file = dir.resolve("watch_" + width + "x" + height + "_" + i + ".jpg");
+            ImageIO.write(img, "jpg", file.toFile());
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * Generate {@code size} unit length histogram‑like vectors scattered
+     * around {@code size / 5} centres, i.e. about five photos per watch.
+     */
+    static FeatureMatrix features(int size, long seed) {
+        Random random = new Random(seed);
+        int centres = Math.max(1, size / 5);
+        float[][] centre = new float[centres][];
+        for (int c = 0; c < centres; c++) {
+            centre[c] = new float[DIMENSION];
+            for (int k = 0; k < 12; k++) {
+                centre[c][random.nextInt(DIMENSION)] += random.nextFloat();
+            }
+        }
+        FeatureMatrix matrix = new FeatureMatrix(DIMENSION, size);
+        float[] row = new float[DIMENSION];
+        for (int i = 0; i < size; i++) {
+            float[] base = centre[random.nextInt(centres)];
+            double norm = 0;
+            for (int d = 0; d < DIMENSION; d++) {
+                row[d] = Math.max(0f, base[d] + (float) (random.nextGaussian() * 0.01));
+                norm += row[d] * row[d];
+            }
+            norm = Math.sqrt(norm);
+            for (int d = 0; d < DIMENSION; d++) {
+                row[d] = (float) (row[d] / norm);
+            }
+            matrix.set(i, row);
+        }
+        return matrix;
+    }
+
+    /**
+     * Recursively delete a directory created for a benchmark.
+     */
+    static void deleteRecursively(Path dir) throws IOException {
+        if (dir == null || Files.notExists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.mywatchcollectionhub;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 /**
  * Entry point for the MyWatchCollectionHub Spring Boot application.
@@ -12,9 +13,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * currently hosts a simple API for managing watches in a collection but is
  * intended to be extended over time with services for image recognition,
  * metadata enrichment and search capabilities as described in the project
- * README.
+ * README.  Caching is enabled for the watch reads served by
+ * {@link com.mywatchcollectionhub.service.WatchService}.
  */
 @SpringBootApplication
+@EnableCaching
 public class MyWatchCollectionHubApplication {
 
     public static void main(String[] args) {
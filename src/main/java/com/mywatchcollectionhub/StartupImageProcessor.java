@@ -1,59 +1,333 @@
 package com.mywatchcollectionhub;
 
+import com.mywatchcollectionhub.service.ContentHash;
 import com.mywatchcollectionhub.service.ImageIngestionService;
+import com.mywatchcollectionhub.service.ProcessedFileManifest;
+import com.mywatchcollectionhub.service.WatchService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.ApplicationArguments;
-import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Component that processes unprocessed watch images on application startup.
  *
  * <p>
- * When the Spring Boot application starts this runner scans the configured
+ * Once the application is ready this component scans the configured
  * directory for image files and ingests them via {@link ImageIngestionService}.
  * Processed images are stored in the "uploads" directory for further
  * processing.  This allows users to drop image files into the defined
  * directory and have them automatically catalogued when the application
  * restarts.
+ *
+ * <p>
+ * The scan runs on a background thread, so it never delays the HTTP port
+ * from opening.  Files are not moved after ingestion; instead a
+ * {@link ProcessedFileManifest} records the size, modification time and
+ * content hash of every ingested file, and only new or changed files are
+ * ingested on later starts.  The manifest is ignored when the collection is
+ * empty, because then the database has been reset since it was written.
+ *
+ * <p>
+ * When watching is enabled the thread then keeps watching the directory with
+ * a {@link java.nio.file.WatchService}.  A file is considered complete once
+ * no event has been seen for it for the debounce interval; complete files
+ * are collected into micro‑batches that are ingested as soon as they reach
+ * the batch size or their oldest file has waited the maximum wait time.
  */
 @Component
-public class StartupImageProcessor implements ApplicationRunner {
+public class StartupImageProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupImageProcessor.class);
+
+    private static final String IMAGE_GLOB = "*.{jpg,jpeg,png,JPG,JPEG,PNG}";
 
     @Value("${image.unprocessed.path:src/main/resources/ImageFiles/Unprocessed}")
     private String unprocessedPath;
 
+    /** Location of the manifest of already ingested files. */
+    @Value("${image.unprocessed.manifest-path:data/processed-files.tsv}")
+    private String manifestPath;
+
+    /** Whether to keep ingesting files added after the startup scan. */
+    @Value("${image.unprocessed.watch.enabled:false}")
+    private boolean watchEnabled;
+
+    /** Quiet period after the last event for a file before it is ingested. */
+    @Value("${image.unprocessed.watch.debounce-ms:500}")
+    private long debounceMillis;
+
+    /** Maximum number of files ingested together. */
+    @Value("${image.unprocessed.watch.batch-size:16}")
+    private int batchSize;
+
+    /** Longest a complete file waits for its batch to fill up. */
+    @Value("${image.unprocessed.watch.max-wait-ms:2000}")
+    private long maxWaitMillis;
+
     private final ImageIngestionService ingestionService;
+    private final WatchService watchService;
 
-    public StartupImageProcessor(ImageIngestionService ingestionService) {
+    private ExecutorService executor;
+    private ProcessedFileManifest manifest;
+
+    public StartupImageProcessor(ImageIngestionService ingestionService, WatchService watchService) {
         this.ingestionService = ingestionService;
+        this.watchService = watchService;
     }
 
-    @Override
-    public void run(ApplicationArguments args) throws Exception {
-        File dir = new File(unprocessedPath);
-        if (!dir.exists() || !dir.isDirectory()) {
+    /**
+     * Start the scan, and the watcher if enabled, in the background once the
+     * application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void scanInBackground() {
+        if (executor != null) {
             return;
         }
-        File[] files = dir.listFiles((d, name) -> {
-            String lower = name.toLowerCase();
-            return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png");
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "startup-image-scan");
+            t.setDaemon(true);
+            return t;
         });
-        if (files == null || files.length == 0) {
-            return;
+        executor.execute(() -> {
+            Path dir = Paths.get(unprocessedPath);
+            if (!Files.isDirectory(dir)) {
+                return;
+            }
+            try {
+                scan(dir);
+            } catch (IOException | RuntimeException e) {
+                // Log and swallow exceptions; the next start retries the files
+                logger.error("Failed to ingest unprocessed images", e);
+            }
+            if (watchEnabled) {
+                try {
+                    watch(dir);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException | RuntimeException e) {
+                    logger.error("Stopped watching {} for new images", dir, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stop a scan still in progress when the application context closes.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Ingest the new and changed image files of the unprocessed directory
+     * and record them in the manifest.
+     */
+    void scan(Path dir) throws IOException {
+        manifest = new ProcessedFileManifest(Paths.get(manifestPath));
+        manifest.load();
+        if (manifest.size() > 0 && watchService.count() == 0) {
+            // The database was reset (e.g. the in-memory default), so the
+            // recorded files are no longer catalogued and must be ingested again.
+            logger.info("Collection is empty; ignoring manifest of {} processed file(s)", manifest.size());
+            manifest = new ProcessedFileManifest(Paths.get(manifestPath));
+        }
+        // Stream the directory listing rather than materialising it as an array.
+        List<Path> candidates = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir, IMAGE_GLOB)) {
+            for (Path entry : entries) {
+                candidates.add(entry);
+            }
         }
-        List<File> fileList = new ArrayList<>(Arrays.asList(files));
+        ingestChanged(candidates);
+    }
+
+    /**
+     * Watch the directory and ingest files as they appear, until the thread
+     * is interrupted.
+     */
+    void watch(Path dir) throws IOException, InterruptedException {
+        PathMatcher images = dir.getFileSystem().getPathMatcher("glob:" + IMAGE_GLOB);
+        long debounce = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        long maxWait = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        int limit = Math.max(1, batchSize);
+        // Last event time of files still being written, and files ready to ingest.
+        Map<Path, Long> settling = new LinkedHashMap<>();
+        Set<Path> ready = new LinkedHashSet<>();
+        long firstReadyAt = 0;
+        try (java.nio.file.WatchService watcher = dir.getFileSystem().newWatchService()) {
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            logger.info("Watching {} for new images", dir);
+            while (true) {
+                long now = System.nanoTime();
+                long timeout = Long.MAX_VALUE;
+                for (long last : settling.values()) {
+                    timeout = Math.min(timeout, last + debounce - now);
+                }
+                if (!ready.isEmpty()) {
+                    timeout = Math.min(timeout, firstReadyAt + maxWait - now);
+                }
+                WatchKey key = timeout == Long.MAX_VALUE
+                        ? watcher.take()
+                        : watcher.poll(Math.max(0, timeout), TimeUnit.NANOSECONDS);
+                boolean overflow = false;
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true;
+                            continue;
+                        }
+                        Path name = (Path) event.context();
+                        if (images.matches(name)) {
+                            settling.put(dir.resolve(name), System.nanoTime());
+                        }
+                    }
+                    if (!key.reset()) {
+                        logger.warn("Directory {} is no longer accessible; stopped watching", dir);
+                        return;
+                    }
+                }
+                if (overflow) {
+                    // Events were lost: fall back to a full scan, which the
+                    // manifest keeps cheap.
+                    settling.clear();
+                    ready.clear();
+                    scanSafely(dir);
+                    continue;
+                }
+                now = System.nanoTime();
+                for (Iterator<Map.Entry<Path, Long>> it = settling.entrySet().iterator(); it.hasNext(); ) {
+                    Map.Entry<Path, Long> entry = it.next();
+                    if (now - entry.getValue() >= debounce) {
+                        if (ready.isEmpty()) {
+                            firstReadyAt = now;
+                        }
+                        ready.add(entry.getKey());
+                        it.remove();
+                    }
+                }
+                if (ready.size() >= limit || (!ready.isEmpty() && now - firstReadyAt >= maxWait)) {
+                    List<Path> batch = new ArrayList<>(limit);
+                    for (Iterator<Path> it = ready.iterator(); it.hasNext() && batch.size() < limit; ) {
+                        batch.add(it.next());
+                        it.remove();
+                    }
+                    // Files left over start a new batch window.
+                    firstReadyAt = now;
+                    ingestSafely(batch);
+                }
+            }
+        }
+    }
+
+    private void scanSafely(Path dir) {
         try {
-            ingestionService.ingestImageFiles(fileList);
-        } catch (IOException e) {
-            // Log and swallow exceptions to avoid preventing application startup
-            System.err.println("Failed to ingest unprocessed images: " + e.getMessage());
+            scan(dir);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to rescan {}", dir, e);
+        }
+    }
+
+    private void ingestSafely(List<Path> batch) {
+        try {
+            ingestChanged(batch);
+        } catch (IOException | RuntimeException e) {
+            // The files stay out of the manifest, so a restart retries them.
+            logger.error("Failed to ingest {} new image(s)", batch.size(), e);
+        }
+    }
+
+    /**
+     * Ingest those of the given files that are not in the manifest with
+     * their current content, recording them as they are catalogued.
+     */
+    private void ingestChanged(List<Path> candidates) throws IOException {
+        Map<Path, ProcessedFileManifest.Entry> pending = new LinkedHashMap<>();
+        boolean touched = false;
+        int unchanged = 0;
+        for (Path entry : candidates) {
+            BasicFileAttributes attrs;
+            try {
+                attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                // Deleted again before it could be ingested.
+                continue;
+            }
+            if (!attrs.isRegularFile()) {
+                continue;
+            }
+            long size = attrs.size();
+            long lastModified = attrs.lastModifiedTime().toMillis();
+            ProcessedFileManifest.Entry known = manifest.get(entry);
+            if (known != null && known.getSize() == size && known.getLastModified() == lastModified) {
+                unchanged++;
+                continue;
+            }
+            // Metadata changed: only the content decides whether to re-ingest.
+            String hash = ContentHash.sha256(entry);
+            ProcessedFileManifest.Entry current = new ProcessedFileManifest.Entry(size, lastModified, hash);
+            if (known != null && known.getContentHash().equals(hash)) {
+                manifest.put(entry, current);
+                touched = true;
+                unchanged++;
+            } else {
+                pending.put(entry, current);
+            }
+        }
+        logger.info("Found {} new or changed and {} unchanged image(s)", pending.size(), unchanged);
+        if (touched) {
+            manifest.save();
+        }
+        if (!pending.isEmpty()) {
+            List<File> fileList = new ArrayList<>(pending.size());
+            List<String> hashes = new ArrayList<>(pending.size());
+            for (Map.Entry<Path, ProcessedFileManifest.Entry> entry : pending.entrySet()) {
+                fileList.add(entry.getKey().toFile());
+                hashes.add(entry.getValue().getContentHash());
+            }
+            // Record files as each chunk is catalogued, so that a failure
+            // part way through does not ingest the earlier chunks again.
+            ingestionService.ingestImageFiles(fileList, hashes, catalogued -> {
+                for (File file : catalogued) {
+                    manifest.put(file.toPath(), pending.get(file.toPath()));
+                }
+                try {
+                    manifest.save();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.mywatchcollectionhub.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors shared by the I/O‑bound parts of the application.
+ *
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} Spring Boot already runs
+ * request handling on virtual threads; the {@value #IO_EXECUTOR} executor
+ * follows the same switch and starts one virtual thread per task, so work
+ * that mostly waits on disks or remote services (copying uploads into
+ * storage, metadata lookups) is not limited by a pool size.  Without it a
+ * fixed pool of platform threads is used.  CPU‑bound work such as feature
+ * extraction and clustering keeps its own bounded platform pools either way.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    /** Name of the executor for blocking I/O tasks. */
+    public static final String IO_EXECUTOR = "ioExecutor";
+
+    @Bean(name = IO_EXECUTOR, destroyMethod = "shutdownNow")
+    public ExecutorService ioExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                      @Value("${execution.io.platform-threads:16}") int platformThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("io-", 1).factory());
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(platformThreads, r -> {
+            Thread t = new Thread(r, "io-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
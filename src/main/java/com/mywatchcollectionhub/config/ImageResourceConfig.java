@@ -0,0 +1,62 @@
+package com.mywatchcollectionhub.config;
+
+import com.mywatchcollectionhub.service.ImageStorageService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Serves stored images at the paths recorded in {@code Watch.imageUrls}, so
+ * {@code uploads/ab/cd/abcd….jpg} is fetched from {@code /uploads/ab/cd/abcd….jpg}.
+ *
+ * <p>
+ * Stored files are never rewritten: content‑addressed files are named after
+ * their hash and named files get a fresh name on collision.  Responses are
+ * therefore marked cacheable for a year and immutable.  Each carries a
+ * Last‑Modified header and a strong ETag (the content hash where the file
+ * name is one, otherwise the size and modification time), and conditional
+ * and range requests are answered by Spring's resource handler.
+ */
+@Configuration
+public class ImageResourceConfig implements WebMvcConfigurer {
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String location = Paths.get(ImageStorageService.UPLOAD_DIR).toAbsolutePath().toUri().toString();
+        registry.addResourceHandler("/" + ImageStorageService.UPLOAD_DIR + "/**")
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .setUseLastModified(true)
+                .setEtagGenerator(ImageResourceConfig::etag);
+    }
+
+    /**
+     * Entity tag for a stored image.
+     *
+     * @return the tag, or {@code null} if the file cannot be inspected
+     */
+    static String etag(Resource resource) {
+        String name = resource.getFilename();
+        if (name != null) {
+            int dot = name.indexOf('.');
+            String stem = dot >= 0 ? name.substring(0, dot) : name;
+            if (CONTENT_HASH.matcher(stem).matches()) {
+                return stem;
+            }
+        }
+        try {
+            return Long.toHexString(resource.contentLength()) + "-" + Long.toHexString(resource.lastModified());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
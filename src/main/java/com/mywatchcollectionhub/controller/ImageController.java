@@ -0,0 +1,76 @@
+package com.mywatchcollectionhub.controller;
+
+import com.mywatchcollectionhub.service.DerivativeSize;
+import com.mywatchcollectionhub.service.ImageDerivativeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * REST controller serving downscaled renditions of stored images.  The
+ * originals themselves are served as static resources under
+ * {@code /uploads/}.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+    private final ImageDerivativeService derivativeService;
+
+    @Autowired
+    public ImageController(ImageDerivativeService derivativeService) {
+        this.derivativeService = derivativeService;
+    }
+
+    /**
+     * Fetch a derivative of a stored image, generating it first if needed.
+     * Responses are cacheable for a year and support conditional and range
+     * requests.
+     *
+     * @param path stored image path, as listed in {@code imageUrls}
+     * @param size {@code thumbnail} or {@code medium}
+     * @return the JPEG derivative
+     * @throws IOException if the image cannot be decoded
+     */
+    @GetMapping("/derivative")
+    public ResponseEntity<Resource> getDerivative(@RequestParam String path,
+                                                  @RequestParam(defaultValue = "thumbnail") String size)
+            throws IOException {
+        DerivativeSize derivativeSize;
+        Path file;
+        try {
+            derivativeSize = DerivativeSize.fromParameter(size);
+            file = derivativeService.getDerivative(path, derivativeSize);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (NoSuchFileException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Image not found: " + path, e);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many previews being generated", e);
+        }
+        FileSystemResource resource = new FileSystemResource(file);
+        long lastModified = resource.lastModified();
+        String etag = derivativeSize.parameter() + "-" + Long.toHexString(resource.contentLength())
+                + "-" + Long.toHexString(lastModified);
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .eTag(etag)
+                .lastModified(lastModified)
+                .body(resource);
+    }
+}
@@ -1,42 +1,114 @@
 package com.mywatchcollectionhub.controller;
 
+import com.mywatchcollectionhub.model.IngestionJob;
 import com.mywatchcollectionhub.model.Watch;
 import com.mywatchcollectionhub.service.ImageIngestionService;
+import com.mywatchcollectionhub.service.IngestionJobService;
+import com.mywatchcollectionhub.service.clustering.ClusteringParameters;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST controller for ingesting watch images.  Clients can upload multiple
  * images and receive created watch records in response.  The images are
- * clustered and analysed on the server.
+ * clustered and analysed on the server.  Large uploads can instead be
+ * submitted as asynchronous jobs whose progress is polled.
+ *
+ * <p>
+ * Both ingestion endpoints accept optional {@code eps} and {@code minPts}
+ * parameters overriding the configured clustering parameters for one
+ * upload; {@code eps=auto} estimates the radius from the uploaded images.
+ * The radius used is reported on the job and in the
+ * {@code ingestion.clustering.eps} metric.
  */
 @RestController
 @RequestMapping("/api/images")
 public class ImageIngestionController {
     private final ImageIngestionService ingestionService;
+    private final IngestionJobService jobService;
 
     @Autowired
-    public ImageIngestionController(ImageIngestionService ingestionService) {
+    public ImageIngestionController(ImageIngestionService ingestionService, IngestionJobService jobService) {
         this.ingestionService = ingestionService;
+        this.jobService = jobService;
     }
 
     /**
      * Upload and ingest one or more watch images.  The uploaded images are
-     * saved, clustered and used to create watch entries.  The response
-     * contains the newly created watch objects.
+     * saved, clustered and used to create watch entries, or attached to
+     * existing watches they match.  The response contains the created or
+     * updated watch objects.
      *
-     * @param files multipart files representing watch photos
-     * @return list of created watch entities
+     * @param files  multipart files representing watch photos
+     * @param eps    clustering radius, or {@code auto} to estimate it
+     * @param minPts minimum cluster neighbourhood size
+     * @return list of created or updated watch entities
      * @throws IOException if ingestion fails
      */
     @PostMapping("/ingest")
     @ResponseStatus(HttpStatus.CREATED)
-    public List<Watch> ingest(@RequestParam("files") MultipartFile[] files) throws IOException {
-        return ingestionService.ingestImages(files);
+    public List<Watch> ingest(@RequestParam("files") MultipartFile[] files,
+                              @RequestParam(required = false) String eps,
+                              @RequestParam(required = false) Integer minPts) throws IOException {
+        return ingestionService.ingestImages(files, clusteringParameters(eps, minPts));
     }
-}
\ No newline at end of file
+
+    /**
+     * Upload watch images for asynchronous ingestion.  The images are stored
+     * before the response is sent; clustering and cataloguing run on a
+     * worker pool.  Poll the returned job, also linked from the
+     * {@code Location} header, for progress.
+     *
+     * @param files  multipart files representing watch photos
+     * @param eps    clustering radius, or {@code auto} to estimate it
+     * @param minPts minimum cluster neighbourhood size
+     * @return the accepted job
+     * @throws IOException if storing the images fails
+     */
+    @PostMapping("/ingest/jobs")
+    public ResponseEntity<IngestionJob> submitIngestJob(@RequestParam("files") MultipartFile[] files,
+                                                        @RequestParam(required = false) String eps,
+                                                        @RequestParam(required = false) Integer minPts)
+            throws IOException {
+        ClusteringParameters parameters = clusteringParameters(eps, minPts);
+        IngestionJob job;
+        try {
+            job = jobService.submit(files, parameters);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+
+    /**
+     * Retrieve the progress of an asynchronous ingestion job.
+     *
+     * @param id job identifier
+     * @return the job
+     */
+    @GetMapping("/ingest/jobs/{id}")
+    public IngestionJob getIngestJob(@PathVariable String id) {
+        return jobService.get(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ingestion job not found: " + id));
+    }
+
+    private static ClusteringParameters clusteringParameters(String eps, Integer minPts) {
+        try {
+            return ClusteringParameters.parse(eps, minPts);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.mywatchcollectionhub.controller;
 
 import com.mywatchcollectionhub.model.Watch;
+import com.mywatchcollectionhub.model.WatchSummaryPage;
+import com.mywatchcollectionhub.service.SearchTerms;
+import com.mywatchcollectionhub.service.WatchFilter;
 import com.mywatchcollectionhub.service.WatchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,9 +20,22 @@ import java.util.Optional;
  * REST controller exposing endpoints for interacting with the watch collection.
  *
  * <p>
- * This controller provides basic CRUD operations.  Additional endpoints for
- * searching, filtering and batch operations can be added as the project
- * evolves.
+ * This controller provides basic CRUD operations and paged listing and
+ * search of watch summaries.  {@code GET /api/watches} keeps returning every
+ * watch in full, as it always has; new clients should page through
+ * {@code GET /api/watches/summaries} instead.  Additional endpoints for
+ * batch operations can be added as the project evolves.
+ *
+ * <p>
+ * Reads are tagged for conditional requests: a watch by its version, and
+ * listing and search pages by the
+ * {@link WatchService#getCollectionRevision() collection revision}.  Both
+ * come from the database, so they survive restarts and agree between
+ * instances.  A watch is also dated by its last change; listings are not,
+ * because deleting a watch does not advance any stored time, so they
+ * revalidate by entity tag only.  A request whose {@code If-None-Match}
+ * still matches is answered with 304 before anything is serialised, and
+ * listings are not even queried.
  */
 @RestController
 @RequestMapping("/api/watches")
@@ -42,23 +62,139 @@ public class WatchController {
     /**
      * Retrieve all watches.
      *
-     * @return list of watches
+     * <p>
+     * Every watch is loaded and returned with its collections.  Prefer
+     * {@link #listWatchSummaries} for listings of a large collection.
+     *
+     * @param request current request, for conditional handling
+     * @return list of watches, or {@code null} when not modified
      */
     @GetMapping
-    public List<Watch> getAllWatches() {
+    public List<Watch> getAllWatches(WebRequest request) {
+        if (request.checkNotModified(watchService.getCollectionRevision())) {
+            return null;
+        }
         return watchService.getAll();
     }
 
     /**
-     * Retrieve a single watch by its id.
+     * List watch summaries one page at a time.
      *
-     * @param id watch identifier
-     * @return watch if found
+     * <p>
+     * Summaries carry the fields shown in a listing and the first image;
+     * fetch {@code /api/watches/{id}} for the full record.  Pass the
+     * {@code nextCursor} of a page as {@code cursor} to fetch the following
+     * page by keyset instead of by offset.
+     *
+     * @param sort      property to sort by: id, brand, model, year or
+     *                  resaleValue
+     * @param direction {@code asc} or {@code desc}
+     * @param page      zero based page number, ignored with a cursor
+     * @param size      page size, at most {@link WatchService#MAX_PAGE_SIZE}
+     * @param cursor    cursor returned with a previous page
+     * @param request   current request, for conditional handling
+     * @return one page of summaries, or {@code null} when not modified
+     */
+    @GetMapping("/summaries")
+    public WatchSummaryPage listWatchSummaries(@RequestParam(defaultValue = "id") String sort,
+                                               @RequestParam(defaultValue = "asc") String direction,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "20") int size,
+                                               @RequestParam(required = false) String cursor,
+                                               WebRequest request) {
+        boolean ascending = ascending(direction);
+        if (request.checkNotModified(watchService.getCollectionRevision())) {
+            return null;
+        }
+        try {
+            return watchService.listSummaries(sort, ascending, page, size, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Search watch summaries.  Every criterion is optional and all given
+     * criteria must match; paging works as for
+     * {@link #listWatchSummaries}, with the criteria repeated alongside a
+     * cursor.
+     *
+     * @param q         words that must each prefix a word of the brand,
+     *                  model or description, case insensitive
+     * @param brand     case insensitive prefix of the brand
+     * @param model     case insensitive prefix of the model
+     * @param tag       tags the watch must all carry, matched exactly
+     * @param minYear   earliest manufacture year
+     * @param maxYear   latest manufacture year
+     * @param minValue  lowest resale value
+     * @param maxValue  highest resale value
+     * @param sort      property to sort by
+     * @param direction {@code asc} or {@code desc}
+     * @param page      zero based page number, ignored with a cursor
+     * @param size      page size
+     * @param cursor    cursor returned with a previous page
+     * @param request   current request, for conditional handling
+     * @return one page of matching summaries, or {@code null} when not
+     *         modified
+     */
+    @GetMapping("/search")
+    public WatchSummaryPage searchWatches(@RequestParam(required = false) String q,
+                                          @RequestParam(required = false) String brand,
+                                          @RequestParam(required = false) String model,
+                                          @RequestParam(required = false) List<String> tag,
+                                          @RequestParam(required = false) Integer minYear,
+                                          @RequestParam(required = false) Integer maxYear,
+                                          @RequestParam(required = false) Double minValue,
+                                          @RequestParam(required = false) Double maxValue,
+                                          @RequestParam(defaultValue = "id") String sort,
+                                          @RequestParam(defaultValue = "asc") String direction,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size,
+                                          @RequestParam(required = false) String cursor,
+                                          WebRequest request) {
+        WatchFilter filter = new WatchFilter();
+        filter.setTerms(new ArrayList<>(SearchTerms.tokens(q)));
+        filter.setBrandPrefix(prefix(brand));
+        filter.setModelPrefix(prefix(model));
+        if (tag != null) {
+            for (String t : tag) {
+                if (t != null && !t.isBlank()) {
+                    filter.getTags().add(t.trim());
+                }
+            }
+        }
+        filter.setMinYear(minYear);
+        filter.setMaxYear(maxYear);
+        filter.setMinValue(minValue);
+        filter.setMaxValue(maxValue);
+        boolean ascending = ascending(direction);
+        if (request.checkNotModified(watchService.getCollectionRevision())) {
+            return null;
+        }
+        try {
+            return watchService.searchSummaries(filter, sort, ascending, page, size, cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retrieve a single watch by its id, including its images, reference
+     * links and tags.
+     *
+     * @param id      watch identifier
+     * @param request current request, for conditional handling
+     * @return watch if found, or {@code null} when not modified
      */
     @GetMapping("/{id}")
-    public Watch getWatch(@PathVariable Long id) {
-        Optional<Watch> watch = watchService.getById(id);
-        return watch.orElseThrow(() -> new IllegalArgumentException("Watch not found with id: " + id));
+    public Watch getWatch(@PathVariable Long id, WebRequest request) {
+        Optional<Watch> found = watchService.getDetail(id);
+        Watch watch = found.orElseThrow(() -> new IllegalArgumentException("Watch not found with id: " + id));
+        String etag = watch.getId() + "-" + watch.getVersion();
+        if (request.checkNotModified(etag, epochMillis(watch.getUpdatedAt()))) {
+            return null;
+        }
+        return watch;
     }
 
     /**
@@ -71,4 +207,26 @@ public class WatchController {
     public void deleteWatch(@PathVariable Long id) {
         watchService.delete(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Milliseconds since the epoch, or -1, which sends no Last-Modified
+     * header, when the time is unknown.
+     */
+    private static long epochMillis(Instant time) {
+        return time != null ? time.toEpochMilli() : -1;
+    }
+
+    private static boolean ascending(String direction) {
+        if ("asc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Direction must be asc or desc");
+    }
+
+    private static String prefix(String value) {
+        return value == null || value.isBlank() ? null : SearchTerms.key(value.trim());
+    }
+}
@@ -0,0 +1,152 @@
+package com.mywatchcollectionhub.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of an asynchronous image ingestion.
+ *
+ * <p>
+ * Jobs are held in memory only and are updated by the ingestion worker
+ * while clients poll them, so every accessor is synchronised.  Items are
+ * the clusters found in the upload: one item yields one created or updated
+ * watch, or one failure.
+ */
+public class IngestionJob {
+    private final String id = UUID.randomUUID().toString();
+    private final Instant submittedAt = Instant.now();
+    private Instant startedAt;
+    private Instant finishedAt;
+    private IngestionStage stage = IngestionStage.SAVING;
+    private int totalImages;
+    private int totalItems;
+    private int completedItems;
+    private Double clusteringEps;
+    private Integer clusteringMinPts;
+    private boolean clusteringEpsEstimated;
+    private final List<Long> watchIds = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+
+    public String getId() {
+        return id;
+    }
+
+    public synchronized IngestionStage getStage() {
+        return stage;
+    }
+
+    public synchronized void setStage(IngestionStage stage) {
+        this.stage = stage;
+        if (stage == IngestionStage.CLUSTERING && startedAt == null) {
+            startedAt = Instant.now();
+        }
+        if (isFinished()) {
+            finishedAt = Instant.now();
+        }
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public synchronized Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public synchronized Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public synchronized int getTotalImages() {
+        return totalImages;
+    }
+
+    public synchronized void setTotalImages(int totalImages) {
+        this.totalImages = totalImages;
+    }
+
+    public synchronized int getTotalItems() {
+        return totalItems;
+    }
+
+    public synchronized void setTotalItems(int totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public synchronized int getCompletedItems() {
+        return completedItems;
+    }
+
+    /**
+     * Epsilon radius the images were clustered with.
+     *
+     * @return the radius, or {@code null} before clustering
+     */
+    public synchronized Double getClusteringEps() {
+        return clusteringEps;
+    }
+
+    public synchronized Integer getClusteringMinPts() {
+        return clusteringMinPts;
+    }
+
+    /**
+     * Whether {@link #getClusteringEps()} was estimated from the upload.
+     *
+     * @return {@code true} for an estimated radius
+     */
+    public synchronized boolean isClusteringEpsEstimated() {
+        return clusteringEpsEstimated;
+    }
+
+    /**
+     * Record the DBSCAN parameters the images were clustered with.
+     *
+     * @param eps          epsilon radius
+     * @param minPts       minimum neighbourhood size
+     * @param epsEstimated whether the radius was estimated
+     */
+    public synchronized void clustered(double eps, int minPts, boolean epsEstimated) {
+        this.clusteringEps = eps;
+        this.clusteringMinPts = minPts;
+        this.clusteringEpsEstimated = epsEstimated;
+    }
+
+    public synchronized List<Long> getWatchIds() {
+        return new ArrayList<>(watchIds);
+    }
+
+    public synchronized List<String> getFailures() {
+        return new ArrayList<>(failures);
+    }
+
+    /**
+     * Record a successfully catalogued item.
+     *
+     * @param watchId id of the created or updated watch
+     */
+    public synchronized void itemCompleted(Long watchId) {
+        completedItems++;
+        watchIds.add(watchId);
+    }
+
+    /**
+     * Record a failed item, or a failure of the job as a whole.
+     *
+     * @param description what failed and why
+     */
+    public synchronized void itemFailed(String description) {
+        failures.add(description);
+    }
+
+    /**
+     * Whether the job has reached a terminal stage.
+     *
+     * @return {@code true} once completed or failed
+     */
+    public synchronized boolean isFinished() {
+        return stage == IngestionStage.COMPLETED || stage == IngestionStage.FAILED;
+    }
+}
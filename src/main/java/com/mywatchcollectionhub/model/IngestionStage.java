@@ -0,0 +1,20 @@
+package com.mywatchcollectionhub.model;
+
+/**
+ * Stages an {@link IngestionJob} passes through, in order.  A job ends in
+ * either {@link #COMPLETED} or {@link #FAILED}.
+ */
+public enum IngestionStage {
+    /** Images are stored and the job is waiting for a worker. */
+    QUEUED,
+    /** Uploaded images are being written to storage. */
+    SAVING,
+    /** Feature extraction and clustering of the stored images. */
+    CLUSTERING,
+    /** Recognition, enrichment and persistence of one watch per cluster. */
+    CATALOGUING,
+    /** All clusters were processed; some may have failed individually. */
+    COMPLETED,
+    /** The job aborted; see the job's failures. */
+    FAILED
+}
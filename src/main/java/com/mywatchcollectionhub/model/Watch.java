@@ -5,8 +5,17 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Column;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.BatchSize;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,13 +28,49 @@ import java.util.List;
  * tags.  Additional fields (such as serial numbers or movement details) can
  * be added in future iterations.  Collections are stored as element
  * collections which are mapped to a separate table automatically by JPA.
+ * They are loaded lazily and in batches, so loading several watches costs
+ * one query per collection rather than one per watch.  The columns the
+ * listing can be sorted by are indexed, as is the time of the last change,
+ * which tags listings for HTTP revalidation.
+ *
+ * <p>
+ * Ids come from a database sequence allocated in blocks rather than from an
+ * identity column.  Hibernate can then assign the id of a new watch without
+ * inserting it first, which lets the inserts of many watches, and of their
+ * collection rows, be sent to the database in JDBC batches.
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_watch_brand", columnList = "brand"),
+        @Index(name = "idx_watch_model", columnList = "model"),
+        @Index(name = "idx_watch_year", columnList = "manufacture_year"),
+        @Index(name = "idx_watch_resale_value", columnList = "resaleValue"),
+        @Index(name = "idx_watch_updated_at", columnList = "updatedAt")
+})
 public class Watch {
+    /**
+     * Ids are reserved 50 at a time, matching the JDBC batch size, so one
+     * sequence call covers a full batch of inserts.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "watch_seq")
+    @SequenceGenerator(name = "watch_seq", sequenceName = "watch_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Incremented by Hibernate on every change to the watch or its
+     * collections.  Serves as the watch's HTTP entity tag and guards
+     * concurrent updates.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * When the watch was last inserted or changed, set by the persistence
+     * callbacks.  Serves as the watch's HTTP Last-Modified date.
+     */
+    private Instant updatedAt;
+
     private String brand;
     private String model;
     /**
@@ -39,14 +84,18 @@ public class Watch {
     /**
      * URLs to the original images uploaded for this watch.  These could be
      * relative paths or external links depending on how images are stored.
+     * The list keeps its order, so the first image can serve as a thumbnail.
      */
     @ElementCollection
+    @OrderColumn(name = "image_order")
+    @BatchSize(size = 64)
     private List<String> imageUrls = new ArrayList<>();
 
     /**
      * Reference links to external sites describing the watch brand or model.
      */
     @ElementCollection
+    @BatchSize(size = 64)
     private List<String> referenceLinks = new ArrayList<>();
 
     /**
@@ -54,6 +103,7 @@ public class Watch {
      * "diver", "chronograph", or specific material names.
      */
     @ElementCollection
+    @BatchSize(size = 64)
     private List<String> tags = new ArrayList<>();
 
     // Getters and setters
@@ -66,6 +116,28 @@ public class Watch {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
+
     public String getBrand() {
         return brand;
     }
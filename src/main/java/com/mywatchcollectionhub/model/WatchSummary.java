@@ -0,0 +1,57 @@
+package com.mywatchcollectionhub.model;
+
+/**
+ * Lightweight view of a {@link Watch} for collection listings.
+ *
+ * <p>
+ * Summaries are selected directly by a single query and carry only the
+ * fields shown in a list plus the first image as a thumbnail, so listing the
+ * collection does not load the watches' element collections.  The full
+ * record is available from {@code /api/watches/{id}}.
+ */
+public class WatchSummary {
+    private final Long id;
+    private final String brand;
+    private final String model;
+    private final Integer year;
+    private final Double resaleValue;
+    private final String imageUrl;
+
+    public WatchSummary(Long id, String brand, String model, Integer year, Double resaleValue, String imageUrl) {
+        this.id = id;
+        this.brand = brand;
+        this.model = model;
+        this.year = year;
+        this.resaleValue = resaleValue;
+        this.imageUrl = imageUrl;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public Double getResaleValue() {
+        return resaleValue;
+    }
+
+    /**
+     * First image of the watch, or {@code null} if it has none.
+     *
+     * @return relative image path
+     */
+    public String getImageUrl() {
+        return imageUrl;
+    }
+}
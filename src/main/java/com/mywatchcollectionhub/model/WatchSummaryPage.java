@@ -0,0 +1,72 @@
+package com.mywatchcollectionhub.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of {@link WatchSummary} results.
+ *
+ * <p>
+ * Offset pages ({@code ?page=n}) report their page number and the total
+ * number of watches.  Cursor pages ({@code ?cursor=…}) skip the count query
+ * and only report the cursor of the following page.  Both report
+ * {@link #getNextCursor()}, which is {@code null} on the last page, so a
+ * client can switch to cursor paging after the first page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WatchSummaryPage {
+    private final List<WatchSummary> items;
+    private final int size;
+    private final Integer page;
+    private final Long totalElements;
+    private final String nextCursor;
+
+    public WatchSummaryPage(List<WatchSummary> items, int size, Integer page, Long totalElements, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.page = page;
+        this.totalElements = totalElements;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<WatchSummary> getItems() {
+        return items;
+    }
+
+    /**
+     * Requested page size; the last page may hold fewer items.
+     *
+     * @return page size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Zero based page number, for offset pages only.
+     *
+     * @return page number, or {@code null}
+     */
+    public Integer getPage() {
+        return page;
+    }
+
+    /**
+     * Number of watches in the collection, for offset pages only.
+     *
+     * @return total count, or {@code null}
+     */
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    /**
+     * Cursor for the page after this one.
+     *
+     * @return opaque cursor, or {@code null} on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
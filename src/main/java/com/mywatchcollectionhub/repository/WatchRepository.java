@@ -1,16 +1,80 @@
 package com.mywatchcollectionhub.repository;
 
 import com.mywatchcollectionhub.model.Watch;
+import com.mywatchcollectionhub.model.WatchSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Spring Data repository for persisting and retrieving {@link Watch} entities.
  *
  * <p>
- * The repository exposes CRUD operations inherited from {@link JpaRepository}.
+ * The repository exposes CRUD operations inherited from {@link JpaRepository}
+ * and paged summary listings from {@link WatchSummaryRepository}.
  */
 @Repository
-public interface WatchRepository extends JpaRepository<Watch, Long> {
-    // Additional query methods can be defined here, e.g. findByBrand, findByModel, etc.
-}
\ No newline at end of file
+public interface WatchRepository extends JpaRepository<Watch, Long>, WatchSummaryRepository {
+
+    /**
+     * Fetch every image path together with the id of the watch it belongs
+     * to, in a single query and without loading the watch entities.
+     *
+     * @return rows of {@code [Long watchId, String imageUrl]}
+     */
+    @Query("select w.id, u from Watch w join w.imageUrls u")
+    List<Object[]> findAllImageUrls();
+
+    /**
+     * Fetch the time of the latest change to any watch together with the
+     * number of watches, in a single query.
+     *
+     * @return a single row of {@code [Instant maxUpdatedAt, Long count]};
+     *         the time is {@code null} when there are no watches
+     */
+    @Query("select max(w.updatedAt), count(w) from Watch w")
+    List<Object[]> findCollectionState();
+
+    /**
+     * Check whether any watch already refers to the given image path.
+     *
+     * @param url stored image path
+     * @return {@code true} if the image is catalogued
+     */
+    @Query("select count(w) > 0 from Watch w join w.imageUrls u where u = :url")
+    boolean existsByImageUrl(@Param("url") String url);
+
+    /**
+     * Fetch the summaries of the given watches in a single query, in no
+     * particular order.
+     *
+     * @param ids watch ids
+     * @return summaries of the watches that exist
+     */
+    @Query("select new com.mywatchcollectionhub.model.WatchSummary("
+            + "w.id, w.brand, w.model, w.year, w.resaleValue, img) "
+            + "from Watch w left join w.imageUrls img on index(img) = 0 where w.id in :ids")
+    List<WatchSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Fetch the searchable scalar fields of every watch without loading the
+     * entities.
+     *
+     * @return rows of {@code [Long id, String brand, String model,
+     *         String description, Integer year, Double resaleValue]}
+     */
+    @Query("select w.id, w.brand, w.model, w.description, w.year, w.resaleValue from Watch w")
+    List<Object[]> findAllSearchFields();
+
+    /**
+     * Fetch every tag together with the id of the watch carrying it.
+     *
+     * @return rows of {@code [Long watchId, String tag]}
+     */
+    @Query("select w.id, t from Watch w join w.tags t")
+    List<Object[]> findAllTags();
+}
@@ -0,0 +1,90 @@
+package com.mywatchcollectionhub.repository;
+
+import com.mywatchcollectionhub.model.WatchSummary;
+
+/**
+ * Properties the watch listing can be sorted by.  Every sort is made total
+ * by the watch id as a tie breaker, which keyset (cursor) paging relies on.
+ */
+public enum WatchSortField {
+    ID("id"),
+    BRAND("brand"),
+    MODEL("model"),
+    YEAR("year"),
+    RESALE_VALUE("resaleValue");
+
+    private final String property;
+
+    WatchSortField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * Entity property sorted on.
+     *
+     * @return JPA attribute name
+     */
+    public String property() {
+        return property;
+    }
+
+    /**
+     * Value of this property for a summary, used to build the cursor of the
+     * following page.
+     *
+     * @param summary last summary on a page
+     * @return sort value, possibly {@code null}
+     */
+    public Object valueOf(WatchSummary summary) {
+        switch (this) {
+            case BRAND:
+                return summary.getBrand();
+            case MODEL:
+                return summary.getModel();
+            case YEAR:
+                return summary.getYear();
+            case RESALE_VALUE:
+                return summary.getResaleValue();
+            default:
+                return summary.getId();
+        }
+    }
+
+    /**
+     * Convert a sort value read back from a cursor to the property's type.
+     *
+     * @param value textual value
+     * @return typed value
+     * @throws IllegalArgumentException if the value does not parse
+     */
+    public Object parse(String value) {
+        switch (this) {
+            case BRAND:
+            case MODEL:
+                return value;
+            case YEAR:
+                return Integer.valueOf(value);
+            case RESALE_VALUE:
+                return Double.valueOf(value);
+            default:
+                return Long.valueOf(value);
+        }
+    }
+
+    /**
+     * Resolve a request parameter such as {@code brand} or
+     * {@code resaleValue}.
+     *
+     * @param name property name, case insensitive
+     * @return the matching field
+     * @throws IllegalArgumentException if the property cannot be sorted on
+     */
+    public static WatchSortField fromParameter(String name) {
+        for (WatchSortField field : values()) {
+            if (field.property.equalsIgnoreCase(name) || field.name().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Cannot sort watches by '" + name + "'");
+    }
+}
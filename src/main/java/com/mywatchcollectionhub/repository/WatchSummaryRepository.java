@@ -0,0 +1,36 @@
+package com.mywatchcollectionhub.repository;
+
+import com.mywatchcollectionhub.model.WatchSummary;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment selecting {@link WatchSummary} rows with offset
+ * or keyset paging.  Implemented by {@link WatchSummaryRepositoryImpl} and
+ * mixed into {@link WatchRepository}.
+ */
+public interface WatchSummaryRepository {
+
+    /**
+     * Select one page of summaries, each with the watch's first image, in a
+     * single query.
+     *
+     * <p>
+     * Rows are ordered by the sort field with nulls first in ascending order
+     * (last in descending order) and then by id.  With an
+     * {@code afterId} only rows strictly after the row with that sort value
+     * and id are returned (keyset paging); otherwise {@code offset} rows are
+     * skipped.
+     *
+     * @param sort       field to order by
+     * @param ascending  sort direction
+     * @param afterValue sort value of the last row of the previous page
+     * @param afterId    id of the last row of the previous page, or
+     *                   {@code null} for offset paging
+     * @param offset     rows to skip when not keyset paging
+     * @param limit      maximum number of rows
+     * @return the selected summaries
+     */
+    List<WatchSummary> findSummaries(WatchSortField sort, boolean ascending,
+                                     Object afterValue, Long afterId, int offset, int limit);
+}
@@ -0,0 +1,73 @@
+package com.mywatchcollectionhub.repository;
+
+import com.mywatchcollectionhub.model.WatchSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * JPQL implementation of {@link WatchSummaryRepository}.
+ *
+ * <p>
+ * The keyset predicate spells out the null handling instead of wrapping the
+ * column in {@code coalesce}, so the database can still walk the index of
+ * the sort column.
+ */
+class WatchSummaryRepositoryImpl implements WatchSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<WatchSummary> findSummaries(WatchSortField sort, boolean ascending,
+                                            Object afterValue, Long afterId, int offset, int limit) {
+        String direction = ascending ? "asc" : "desc";
+        String idCompare = ascending ? ">" : "<";
+        StringBuilder jpql = new StringBuilder(
+                "select new com.mywatchcollectionhub.model.WatchSummary("
+                        + "w.id, w.brand, w.model, w.year, w.resaleValue, img) "
+                        + "from Watch w left join w.imageUrls img on index(img) = 0");
+        if (afterId != null) {
+            jpql.append(" where ");
+            if (sort == WatchSortField.ID) {
+                jpql.append("w.id ").append(idCompare).append(" :afterId");
+            } else {
+                String column = "w." + sort.property();
+                if (afterValue == null) {
+                    // Nulls sort first ascending and last descending.
+                    jpql.append("(").append(column).append(" is null and w.id ").append(idCompare).append(" :afterId)");
+                    if (ascending) {
+                        jpql.append(" or ").append(column).append(" is not null");
+                    }
+                } else {
+                    jpql.append("(").append(column).append(" ").append(idCompare).append(" :afterValue")
+                            .append(" or (").append(column).append(" = :afterValue and w.id ")
+                            .append(idCompare).append(" :afterId)");
+                    if (!ascending) {
+                        jpql.append(" or ").append(column).append(" is null");
+                    }
+                    jpql.append(")");
+                }
+            }
+        }
+        jpql.append(" order by ");
+        if (sort != WatchSortField.ID) {
+            jpql.append("w.").append(sort.property()).append(" ").append(direction)
+                    .append(ascending ? " nulls first, " : " nulls last, ");
+        }
+        jpql.append("w.id ").append(direction);
+
+        TypedQuery<WatchSummary> query = entityManager.createQuery(jpql.toString(), WatchSummary.class);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+            if (sort != WatchSortField.ID && afterValue != null) {
+                query.setParameter("afterValue", afterValue);
+            }
+        } else if (offset > 0) {
+            query.setFirstResult(offset);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
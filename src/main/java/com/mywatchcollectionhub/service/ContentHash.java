@@ -0,0 +1,84 @@
+package com.mywatchcollectionhub.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Helpers for computing content hashes of stored images.
+ *
+ * <p>
+ * Hashes identify an image by its bytes rather than by its file name, so
+ * caches keyed by them stay valid across renames and restarts.  They are
+ * rendered as lower case hexadecimal strings.
+ */
+public final class ContentHash {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ContentHash() {
+    }
+
+    /**
+     * Compute the SHA‑256 hash of a file, streaming its content.
+     *
+     * @param path file to hash
+     * @return 64 character hexadecimal hash
+     * @throws IOException if the file cannot be read
+     */
+    public static String sha256(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return sha256(in);
+        }
+    }
+
+    /**
+     * Compute the SHA‑256 hash of everything remaining in a stream.  The
+     * stream is not closed.
+     *
+     * @param in stream to hash
+     * @return 64 character hexadecimal hash
+     * @throws IOException if the stream cannot be read
+     */
+    public static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Create a new SHA‑256 message digest.
+     *
+     * @return digest instance
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Render raw digest bytes as lower case hexadecimal.
+     *
+     * @param bytes digest bytes
+     * @return hexadecimal string
+     */
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
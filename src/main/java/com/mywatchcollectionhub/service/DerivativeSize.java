@@ -0,0 +1,56 @@
+package com.mywatchcollectionhub.service;
+
+/**
+ * Downscaled renditions generated for every stored image by
+ * {@link ImageDerivativeService}.  Each keeps the aspect ratio of the
+ * original and fits its longer side to {@link #maxSide()}; smaller originals
+ * are not enlarged.
+ */
+public enum DerivativeSize {
+    /** Small preview for listings. */
+    THUMBNAIL("thumbnail", 256),
+    /** Preview for detail views. */
+    MEDIUM("medium", 1024);
+
+    private final String parameter;
+    private final int maxSide;
+
+    DerivativeSize(String parameter, int maxSide) {
+        this.parameter = parameter;
+        this.maxSide = maxSide;
+    }
+
+    /**
+     * Name used in request parameters and as the storage directory.
+     *
+     * @return parameter name
+     */
+    public String parameter() {
+        return parameter;
+    }
+
+    /**
+     * Longest side of the rendition in pixels.
+     *
+     * @return maximum width and height
+     */
+    public int maxSide() {
+        return maxSide;
+    }
+
+    /**
+     * Resolve a request parameter such as {@code thumbnail}.
+     *
+     * @param name size name, case insensitive
+     * @return the matching size
+     * @throws IllegalArgumentException if no size has that name
+     */
+    public static DerivativeSize fromParameter(String name) {
+        for (DerivativeSize size : values()) {
+            if (size.parameter.equalsIgnoreCase(name) || size.name().equalsIgnoreCase(name)) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Unknown image size '" + name + "'");
+    }
+}
@@ -0,0 +1,329 @@
+package com.mywatchcollectionhub.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistent store of image feature vectors keyed by content hash.
+ *
+ * <p>
+ * Clustering an image requires decoding it, which dominates the cost of
+ * re‑clustering images that were already seen on a previous run.  This store
+ * keeps the computed vectors in a compact append‑only file of fixed size
+ * records (a 32 byte SHA‑256 hash followed by the vector as little endian
+ * float32 values) behind a bounded in‑memory LRU cache.  The file header
+ * records the vector length and a format tag naming the extractor that
+ * produced the vectors; vectors put with a different tag or length replace
+ * the whole file, so records computed by an older extractor are never
+ * returned.  On startup the file's hashes are loaded into an in‑memory
+ * offset table; vectors are read on demand with positional reads, so the
+ * operating system page cache does the heavy lifting on restarts.
+ *
+ * <p>
+ * Lookups share a read lock and run their file reads concurrently; only
+ * appends and format changes take the write lock.
+ *
+ * <p>
+ * The store is an optimisation only.  If the file cannot be opened or
+ * written the failure is logged and the store behaves as if empty.
+ */
+@Service
+public class FeatureStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeatureStore.class);
+
+    /** File signature, "WFS2". */
+    private static final int MAGIC = 0x57465332;
+    /** Magic, vector length and tag length, followed by the tag. */
+    private static final int FIXED_HEADER_BYTES = 12;
+    private static final int MAX_TAG_BYTES = 256;
+    private static final int HASH_BYTES = 32;
+    /** Size of the reads that load the offset table. */
+    private static final int LOAD_CHUNK_BYTES = 1 << 20;
+
+    /**
+     * Whether vectors are persisted at all.  Disabling the store forces
+     * every image to be decoded on each clustering run.
+     */
+    @Value("${image.clustering.feature-store.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * Location of the feature file, relative to the working directory.
+     */
+    @Value("${image.clustering.feature-store.path:data/features.bin}")
+    private String storePath = "data/features.bin";
+
+    /**
+     * Maximum number of vectors held in the in‑memory LRU cache.
+     */
+    @Value("${image.clustering.feature-store.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    /** Format tag of the records in the file, or {@code null} while the file is empty. */
+    private String tag;
+    /** Vector length of the records in the file, or 0 while the file is empty. */
+    private int dimension;
+    private int headerBytes;
+    /** Record number of each stored hash. */
+    private final Map<String, Integer> records = new HashMap<>();
+    /** Recently read vectors; guarded by its own monitor, never held across I/O. */
+    private Map<String, float[]> cache;
+
+    /**
+     * Open the file and load its offset table.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        try {
+            Path path = Paths.get(storePath);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            loadIndex();
+            if (tag != null) {
+                logger.info("Opened feature store {} with {} {} vector(s)", storePath, records.size(), tag);
+            } else {
+                logger.info("Opened empty feature store {}", storePath);
+            }
+        } catch (IOException e) {
+            logger.warn("Feature store {} unavailable, features will not be cached: {}", storePath, e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Look up the vector stored for the given content hash.
+     *
+     * @param formatTag identifies the extractor, and its version, that the
+     *                  caller would compute the vector with
+     * @param hash      hexadecimal SHA‑256 content hash
+     * @return the stored vector, or {@code null} if none is stored for the
+     *         tag
+     */
+    public float[] get(String formatTag, String hash) {
+        lock.readLock().lock();
+        try {
+            if (channel == null || !formatTag.equals(tag)) {
+                return null;
+            }
+            synchronized (cache) {
+                float[] cached = cache.get(hash);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            Integer record = records.get(hash);
+            if (record == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(dimension * Float.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (!readFully(buffer, recordOffset(record) + HASH_BYTES)) {
+                return null;
+            }
+            buffer.flip();
+            float[] vector = new float[dimension];
+            buffer.asFloatBuffer().get(vector);
+            synchronized (cache) {
+                cache.put(hash, vector);
+            }
+            return vector;
+        } catch (IOException e) {
+            logger.warn("Failed to read feature vector {} from {}: {}", hash, storePath, e.getMessage());
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Store the vector computed for the given content hash.  Vectors whose
+     * tag or length differs from those already in the file replace the
+     * whole file, as they were produced by a different feature extractor.
+     *
+     * @param formatTag identifies the extractor, and its version, that
+     *                  computed the vector
+     * @param hash      hexadecimal SHA‑256 content hash
+     * @param vector    feature vector
+     */
+    public void put(String formatTag, String hash, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            if (!formatTag.equals(tag) || dimension != vector.length) {
+                reset(formatTag, vector.length);
+            } else if (records.containsKey(hash)) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(HASH_BYTES + dimension * Float.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(fromHex(hash));
+            buffer.asFloatBuffer().put(vector);
+            buffer.position(buffer.capacity());
+            buffer.flip();
+            int record = records.size();
+            long position = recordOffset(record);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+            records.put(hash, record);
+            synchronized (cache) {
+                cache.put(hash, vector);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to write feature vector {} to {}: {}", hash, storePath, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Close the underlying file.
+     */
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close feature store {}: {}", storePath, e.getMessage());
+                }
+                channel = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        records.clear();
+        tag = null;
+        dimension = 0;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_BYTES);
+        if (!readFully(header, 0)) {
+            channel.truncate(0);
+            return;
+        }
+        header.flip();
+        int magic = header.getInt();
+        int storedDimension = header.getInt();
+        int tagBytes = header.getInt();
+        ByteBuffer storedTag = null;
+        if (magic == MAGIC && storedDimension > 0 && tagBytes > 0 && tagBytes <= MAX_TAG_BYTES) {
+            storedTag = ByteBuffer.allocate(tagBytes);
+        }
+        if (storedTag == null || !readFully(storedTag, FIXED_HEADER_BYTES)) {
+            logger.warn("Feature store {} has an unknown format and will be rebuilt", storePath);
+            channel.truncate(0);
+            return;
+        }
+        tag = new String(storedTag.array(), StandardCharsets.UTF_8);
+        dimension = storedDimension;
+        headerBytes = FIXED_HEADER_BYTES + tagBytes;
+        int recordBytes = HASH_BYTES + dimension * Float.BYTES;
+        long count = (size - headerBytes) / recordBytes;
+        // Drop a partially written trailing record left by an interrupted write.
+        channel.truncate(headerBytes + count * recordBytes);
+        // Read whole records in large chunks and pick out their hashes.
+        int perChunk = Math.max(1, LOAD_CHUNK_BYTES / recordBytes);
+        ByteBuffer chunk = ByteBuffer.allocate(perChunk * recordBytes);
+        byte[] hash = new byte[HASH_BYTES];
+        for (int first = 0; first < count; first += perChunk) {
+            int n = (int) Math.min(perChunk, count - first);
+            chunk.clear().limit(n * recordBytes);
+            readFully(chunk, recordOffset(first));
+            for (int i = 0; i < n; i++) {
+                chunk.get(i * recordBytes, hash);
+                records.put(ContentHash.toHex(hash), first + i);
+            }
+        }
+    }
+
+    private void reset(String newTag, int newDimension) throws IOException {
+        if (dimension != 0) {
+            logger.info("Feature format changed from {} ({} components) to {} ({} components); "
+                    + "discarding stored vectors", tag, dimension, newTag, newDimension);
+        }
+        byte[] tagBytes = newTag.getBytes(StandardCharsets.UTF_8);
+        if (tagBytes.length == 0 || tagBytes.length > MAX_TAG_BYTES) {
+            throw new IOException("Invalid feature format tag: " + newTag);
+        }
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_BYTES + tagBytes.length);
+        header.putInt(MAGIC).putInt(newDimension).putInt(tagBytes.length).put(tagBytes).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        records.clear();
+        synchronized (cache) {
+            cache.clear();
+        }
+        tag = newTag;
+        dimension = newDimension;
+        headerBytes = header.capacity();
+    }
+
+    /**
+     * Fill an empty buffer from the given file position.
+     *
+     * @return {@code false} if the file ends first
+     */
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long recordOffset(int record) {
+        return headerBytes + record * (HASH_BYTES + (long) dimension * Float.BYTES);
+    }
+
+    private static byte[] fromHex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex, i * 2, i * 2 + 2, 16);
+        }
+        return bytes;
+    }
+}
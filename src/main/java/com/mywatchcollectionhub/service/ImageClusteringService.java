@@ -1,42 +1,139 @@
 package com.mywatchcollectionhub.service;
 
+import com.mywatchcollectionhub.service.clustering.ClusteringParameters;
+import com.mywatchcollectionhub.service.clustering.ClusteringResult;
+import com.mywatchcollectionhub.service.clustering.Dbscan;
+import com.mywatchcollectionhub.service.clustering.DownscaledImageDecoder;
+import com.mywatchcollectionhub.service.clustering.EpsEstimator;
+import com.mywatchcollectionhub.service.clustering.FeatureExtractor;
+import com.mywatchcollectionhub.service.clustering.FeatureExtractorMode;
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+import com.mywatchcollectionhub.service.clustering.NeighbourIndex;
+import com.mywatchcollectionhub.service.clustering.NeighbourSearchMode;
+import com.mywatchcollectionhub.service.clustering.PerceptualHash;
+import com.mywatchcollectionhub.service.clustering.PerceptualHashIndex;
+import com.mywatchcollectionhub.service.clustering.partitioned.PartitionedDbscan;
+import com.mywatchcollectionhub.service.clustering.partitioned.ShardExecutionMode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.imageio.ImageIO;
-import java.awt.Image;
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service that clusters images based on their visual similarity.
  *
  * <p>
  * This implementation is self‑contained in Java to avoid external script
- * dependencies.  It computes a simple colour histogram for each image and
- * applies a lightweight DBSCAN‑like algorithm to group similar images.
- * The algorithm uses Euclidean distance on normalised histograms and
- * configurable parameters for the epsilon radius and minimum number of
- * neighbours.  Images in the same cluster are presumed to depict the
+ * dependencies.  It computes a feature vector for each image, by default a
+ * simple colour histogram, and applies a lightweight DBSCAN‑like algorithm
+ * to group similar images.  The algorithm uses Euclidean distance on
+ * normalised features and configurable parameters for the epsilon radius
+ * and minimum number of neighbours.  Images in the same cluster are presumed to depict the
  * same watch from different angles.
+ *
+ * <p>
+ * The feature is computed by the {@link FeatureExtractor} selected with
+ * {@code image.clustering.feature-extractor}: per‑channel RGB histograms
+ * (768 components), a joint 8x8x8 HSV histogram (512) or a gradient
+ * orientation descriptor (128).  Each extractor declares its dimension and
+ * {@link com.mywatchcollectionhub.service.clustering.DistanceMetric}; the
+ * metric normalises the vectors to unit length so one epsilon radius serves
+ * them all.
+ *
+ * <p>
+ * Neighbour queries are answered by a {@link NeighbourIndex} built once per
+ * run.  The default vantage‑point tree avoids comparing every pair of
+ * images; the brute force scan remains available as a reference mode via
+ * {@code image.clustering.neighbour-index=brute-force}.  The expansion
+ * itself is done by {@link Dbscan} on primitive arrays: an int label per
+ * point, an int ring buffer as the frontier and a bit set so that every
+ * point is queued at most once.
+ *
+ * <p>
+ * Histograms are extracted in parallel on a fixed size worker pool.  Each
+ * image is decoded with source subsampling so that full resolution rasters
+ * are never materialised, and a semaphore caps how many decoded images are
+ * held in memory at once.
+ *
+ * <p>
+ * Computed features are persisted in the {@link FeatureStore} keyed by the
+ * SHA‑256 hash of the image bytes, so images that were clustered before are
+ * only hashed, never decoded again.  Records are stored under a tag naming
+ * the extractor and the record format version, so changing either makes
+ * the store discard its records.
+ *
+ * <p>
+ * Features are held as float32 rows of a single flat {@link FeatureMatrix}
+ * (3 KB per RGB histogram rather than 6 KB plus an array header), and neighbour
+ * tests compare squared distances against eps² using the shared
+ * {@link com.mywatchcollectionhub.service.clustering.DistanceKernel}, which
+ * uses the JDK Vector API when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}.
+ *
+ * <p>
+ * When an {@link ImageDerivativeService} is present, stored images that
+ * have to be decoded are subsampled to thumbnail resolution instead: the
+ * thumbnail is written from that raster and the feature grid is averaged
+ * from it.
+ *
+ * <p>
+ * A 64‑bit {@link PerceptualHash} is computed from the same grid and stored
+ * with the feature.  When {@code image.clustering.near-duplicates.enabled}
+ * is set, images whose hashes are within a few bits of each other and whose
+ * features are within the epsilon radius, typically the frames of a burst,
+ * are collapsed through a {@link PerceptualHashIndex} into one
+ * representative before DBSCAN runs; DBSCAN clusters only the
+ * representatives, weighted by the number of images each stands for, and
+ * every image takes its representative's cluster.
+ *
+ * <p>
+ * The epsilon radius and minimum neighbourhood size are configured with
+ * {@code image.clustering.eps} and {@code image.clustering.min-pts} and can
+ * be overridden per run with {@link ClusteringParameters}.  The radius can
+ * instead be estimated from each batch by {@link EpsEstimator}, either on
+ * request or by default with {@code image.clustering.auto-eps.enabled}.
+ *
+ * <p>
+ * Batches of at least {@code image.clustering.partitioned.min-points}
+ * points can be clustered by {@link PartitionedDbscan} instead: the points
+ * are cut into shards clustered independently, in this JVM or in worker
+ * processes, and merged into exactly the labels of a single run.  A batch
+ * whose shards would overlap too much for sharding to pay, and a failed
+ * shard, fall back to a single run.
  */
 @Service
 public class ImageClusteringService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ImageClusteringService.class);
+
     /**
      * Epsilon parameter controlling the maximum distance between two
-     * histograms for them to be considered neighbours.  Smaller values
+     * feature vectors for them to be considered neighbours.  Smaller values
      * result in more clusters.  The default value of 0.5 was chosen
      * experimentally and can be tuned as needed.
      */
-    private static final double EPS = 0.5;
+    @Value("${image.clustering.eps:0.5}")
+    private double eps = 0.5;
 
     /**
      * Minimum number of neighbouring points required to form a cluster.
@@ -44,12 +141,140 @@ public class ImageClusteringService {
      * min_samples=1, where every point becomes a core point.  Increase
      * this value to require more evidence before grouping images.
      */
-    private static final int MIN_PTS = 1;
+    @Value("${image.clustering.min-pts:1}")
+    private int minPts = 1;
+
+    /**
+     * Whether runs that do not request a radius estimate one from their
+     * batch instead of using {@link #eps}.
+     */
+    @Value("${image.clustering.auto-eps.enabled:false}")
+    private boolean autoEps;
+
+    /** Largest number of points compared when estimating the radius. */
+    @Value("${image.clustering.auto-eps.sample-size:500}")
+    private int autoEpsSampleSize = 500;
+
+    /** Whether large batches are clustered shard by shard. */
+    @Value("${image.clustering.partitioned.enabled:false}")
+    private boolean partitioned;
+
+    /** Smallest batch clustered shard by shard. */
+    @Value("${image.clustering.partitioned.min-points:20000}")
+    private int partitionMinPoints = 20000;
+
+    /** Number of shards; zero means one per extraction thread. */
+    @Value("${image.clustering.partitioned.shards:0}")
+    private int shardCount;
+
+    /** Where shards are clustered. */
+    @Value("${image.clustering.partitioned.executor:in-process}")
+    private ShardExecutionMode shardExecutionMode = ShardExecutionMode.IN_PROCESS;
+
+    /** Maximum heap of each worker process, e.g. {@code 2g}; empty for the JVM default. */
+    @Value("${image.clustering.partitioned.worker-max-heap:}")
+    private String workerMaxHeap;
+
+    /**
+     * Strategy used to answer neighbour queries.  Both strategies produce
+     * identical cluster assignments; they differ only in speed.
+     */
+    @Value("${image.clustering.neighbour-index:vp-tree}")
+    private NeighbourSearchMode neighbourSearchMode = NeighbourSearchMode.VP_TREE;
+
+    /**
+     * Side length of the grid each image is reduced to before building its
+     * feature.
+     */
+    private static final int GRID_SIZE = 64;
+
+    /**
+     * Version of the records produced by {@link #computeRecord}.  Bump it
+     * whenever decoding, normalisation or hashing changes, so that records
+     * stored by the {@link FeatureStore} under the old version are
+     * recomputed.
+     */
+    private static final int RECORD_FORMAT_VERSION = 2;
+
+    /** Feature computed for each image. */
+    @Value("${image.clustering.feature-extractor:rgb-histogram}")
+    private FeatureExtractorMode featureExtractorMode = FeatureExtractorMode.RGB_HISTOGRAM;
+
+    /**
+     * Whether near‑duplicate images are collapsed by perceptual hash before
+     * clustering.
+     */
+    @Value("${image.clustering.near-duplicates.enabled:false}")
+    private boolean collapseNearDuplicates;
+
+    /**
+     * Largest number of differing perceptual hash bits, out of 64, at which
+     * two images count as near‑duplicates.
+     */
+    @Value("${image.clustering.near-duplicates.max-distance:4}")
+    private int nearDuplicateDistance = 4;
+
+    /**
+     * Number of worker threads used to extract features.  Defaults to the
+     * number of available processors.
+     */
+    @Value("${image.clustering.extraction-threads:0}")
+    private int extractionThreads;
+
+    /**
+     * Maximum number of images that may be decoded concurrently.  Bounds the
+     * memory used by decoded rasters independently of the thread count.
+     * Zero means one per extraction thread.
+     */
+    @Value("${image.clustering.max-decoded-images:0}")
+    private int maxDecodedImages;
+
+    private ExecutorService extractionExecutor;
+    private Semaphore decodePermits;
+    private FeatureExtractor featureExtractor;
+
+    private final FeatureStore featureStore;
+    private final ImageDerivativeService derivativeService;
+
+    @Autowired
+    public ImageClusteringService(FeatureStore featureStore, ImageDerivativeService derivativeService) {
+        this.featureStore = featureStore;
+        this.derivativeService = derivativeService;
+    }
+
+    /**
+     * Create a clustering service without a persistent feature store or
+     * derivative generation.  Every image is decoded on every run.
+     * {@link #start()} must be called before use.
+     */
+    public ImageClusteringService() {
+        this(null, null);
+    }
+
+    /**
+     * Create the feature extractor and the extraction pool from the
+     * configuration.
+     */
+    @PostConstruct
+    public void start() {
+        featureExtractor = featureExtractorMode.create();
+        logger.info("Clustering images by {} features ({} components, {} distance)",
+                featureExtractor.getName(), featureExtractor.getDimension(), featureExtractor.getMetric());
+        int threads = extractionThreadCount();
+        decodePermits = new Semaphore(maxDecodedImages > 0 ? maxDecodedImages : threads);
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "feature-extraction-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        extractionExecutor = Executors.newFixedThreadPool(threads, factory);
+    }
 
     /**
      * Cluster the given images using a simple DBSCAN‑like algorithm.  It
-     * computes a normalised colour histogram for each image and groups
-     * images whose histograms are within the epsilon radius.  Noise
+     * computes a normalised feature vector for each image and groups
+     * images whose features are within the epsilon radius.  Noise
      * images (those that do not have enough neighbours) are assigned a
      * cluster id of -1.
      *
@@ -58,138 +283,364 @@ public class ImageClusteringService {
      * @throws IOException if an image cannot be read
      */
     public Map<File, Integer> clusterImages(List<File> images) throws IOException {
-        Map<File, Integer> clusterAssignments = new HashMap<>();
-        int n = images.size();
-        if (n == 0) {
+        Map<File, Integer> clusterAssignments = new HashMap<>(images.size() * 4 / 3 + 1);
+        if (images.isEmpty()) {
             return clusterAssignments;
         }
-        // Compute histograms for each image.
-        double[][] features = new double[n][];
-        for (int i = 0; i < n; i++) {
-            features[i] = computeHistogram(images.get(i));
+        long[] perceptualHashes = new long[images.size()];
+        int[] labels = cluster(extractFeatures(images, null, perceptualHashes), perceptualHashes,
+                ClusteringParameters.DEFAULTS).getLabels();
+        for (int i = 0; i < labels.length; i++) {
+            clusterAssignments.put(images.get(i), labels[i]);
+        }
+        return clusterAssignments;
+    }
+
+    /**
+     * Run DBSCAN over precomputed feature vectors.
+     *
+     * @param features one feature vector row per point, as returned by
+     *                 {@link #extractFeatures(List)}
+     * @return the cluster id of each point, or -1 for noise
+     */
+    public int[] cluster(FeatureMatrix features) {
+        return cluster(features, null);
+    }
+
+    /**
+     * Collapse near‑duplicates by perceptual hash, then run DBSCAN over the
+     * remaining representatives.
+     *
+     * @param features         one feature vector row per point
+     * @param perceptualHashes perceptual hash of each point, as filled in by
+     *                         {@link #extractFeatures(List, List, long[])},
+     *                         or {@code null} to cluster every point
+     * @return the cluster id of each point, or -1 for noise
+     */
+    public int[] cluster(FeatureMatrix features, long[] perceptualHashes) {
+        return cluster(features, perceptualHashes, ClusteringParameters.DEFAULTS).getLabels();
+    }
+
+    /**
+     * Collapse near‑duplicates by perceptual hash, then run DBSCAN over the
+     * remaining representatives with the given parameters.  Two images are
+     * only collapsed when their features are also within the requested or,
+     * failing that, the configured radius.  An estimated radius is computed
+     * over the representatives, so that bursts of near‑identical photos do
+     * not drag it towards zero; when no knee can be found the configured
+     * radius is used.
+     *
+     * @param features         one feature vector row per point
+     * @param perceptualHashes perceptual hash of each point, or {@code null}
+     * @param parameters       parameters overriding the configuration
+     * @return the cluster id of each point and the parameters used
+     */
+    public ClusteringResult cluster(FeatureMatrix features, long[] perceptualHashes,
+                                    ClusteringParameters parameters) {
+        int n = features.size();
+        int runMinPts = parameters.getMinPts() != null ? parameters.getMinPts() : minPts;
+        if (perceptualHashes == null || !collapseNearDuplicates || n < 2) {
+            return dbscan(features, null, parameters, runMinPts);
         }
-        boolean[] visited = new boolean[n];
-        int clusterId = 0;
+        double collapseRadius = parameters.getEps() != null ? parameters.getEps() : eps;
+        int[] representative = new PerceptualHashIndex(perceptualHashes, nearDuplicateDistance)
+                .representatives(features, collapseRadius);
+        // Row of each representative in the reduced matrix, and how many
+        // points it stands for.
+        int[] reducedRow = new int[n];
+        int[] weights = new int[n];
+        int reduced = 0;
         for (int i = 0; i < n; i++) {
-            if (visited[i]) {
-                continue;
+            if (representative[i] == i) {
+                reducedRow[i] = reduced++;
             }
-            visited[i] = true;
-            List<Integer> neighbours = regionQuery(i, features);
-            if (neighbours.size() < MIN_PTS) {
-                // mark as noise
-                clusterAssignments.put(images.get(i), -1);
-            } else {
-                // create new cluster and expand
-                expandCluster(i, neighbours, clusterId, clusterAssignments, visited, features, images);
-                clusterId++;
+            weights[reducedRow[representative[i]]]++;
+        }
+        if (reduced == n) {
+            return dbscan(features, null, parameters, runMinPts);
+        }
+        logger.debug("Collapsed {} image(s) into {} representative(s) by perceptual hash", n, reduced);
+        FeatureMatrix representatives = new FeatureMatrix(features.dimension(), reduced);
+        for (int i = 0; i < n; i++) {
+            if (representative[i] == i) {
+                System.arraycopy(features.data(), features.offset(i),
+                        representatives.data(), representatives.offset(reducedRow[i]), features.dimension());
             }
         }
-        return clusterAssignments;
+        ClusteringResult reducedResult = dbscan(representatives, Arrays.copyOf(weights, reduced),
+                parameters, runMinPts);
+        int[] reducedLabels = reducedResult.getLabels();
+        int[] labels = new int[n];
+        for (int i = 0; i < n; i++) {
+            labels[i] = reducedLabels[reducedRow[representative[i]]];
+        }
+        return new ClusteringResult(labels, reducedResult.getEps(), runMinPts, reducedResult.isEpsEstimated());
     }
 
     /**
-     * Expand a cluster by recursively visiting neighbouring points.
-     */
-    private void expandCluster(int index,
-                              List<Integer> neighbours,
-                              int clusterId,
-                              Map<File, Integer> assignments,
-                              boolean[] visited,
-                              double[][] features,
-                              List<File> images) {
-        assignments.put(images.get(index), clusterId);
-        Queue<Integer> queue = new LinkedList<>(neighbours);
-        while (!queue.isEmpty()) {
-            int current = queue.poll();
-            if (!visited[current]) {
-                visited[current] = true;
-                List<Integer> currentNeighbours = regionQuery(current, features);
-                if (currentNeighbours.size() >= MIN_PTS) {
-                    queue.addAll(currentNeighbours);
-                }
-            }
-            if (!assignments.containsKey(images.get(current))) {
-                assignments.put(images.get(current), clusterId);
+     * Run DBSCAN with the requested radius, an estimated one or the
+     * configured one, in that order of preference.
+     */
+    private ClusteringResult dbscan(FeatureMatrix features, int[] weights, ClusteringParameters parameters,
+                                    int runMinPts) {
+        if (parameters.getEps() != null) {
+            return new ClusteringResult(dbscan(features, weights, parameters.getEps(), runMinPts),
+                    parameters.getEps(), runMinPts, false);
+        }
+        if (parameters.isAutoEps() || autoEps) {
+            double estimated = EpsEstimator.estimate(features, runMinPts, autoEpsSampleSize);
+            if (!Double.isNaN(estimated)) {
+                logger.info("Estimated clustering radius {} from {} point(s)", estimated, features.size());
+                return new ClusteringResult(dbscan(features, weights, estimated, runMinPts),
+                        estimated, runMinPts, true);
             }
+            logger.info("No knee in the k-distances of {} point(s); using the configured radius {}",
+                    features.size(), eps);
         }
+        return new ClusteringResult(dbscan(features, weights, eps, runMinPts), eps, runMinPts, false);
     }
 
     /**
-     * Find neighbours for the point at the given index.
+     * Run DBSCAN, counting each point as {@code weights[i]} points when
+     * testing for core points.
+     *
+     * @param weights multiplicity of each point, or {@code null} for one each
      */
-    private List<Integer> regionQuery(int index, double[][] features) {
-        List<Integer> neighbours = new ArrayList<>();
-        double[] base = features[index];
-        for (int j = 0; j < features.length; j++) {
-            double dist = euclideanDistance(base, features[j]);
-            if (dist <= EPS) {
-                neighbours.add(j);
+    private int[] dbscan(FeatureMatrix features, int[] weights, double radius, int runMinPts) {
+        int n = features.size();
+        if (n == 0) {
+            return new int[0];
+        }
+        if (partitioned && n >= partitionMinPoints) {
+            int shards = shardCount > 0 ? shardCount : extractionThreadCount();
+            try {
+                return new PartitionedDbscan(neighbourSearchMode, radius, runMinPts, shards)
+                        .run(features, weights, shardExecutionMode.create(extractionExecutor, workerMaxHeap));
+            } catch (IOException e) {
+                logger.warn("Partitioned clustering of {} point(s) failed, clustering on a single node: {}",
+                        n, e.toString());
             }
         }
-        return neighbours;
+        return new Dbscan(neighbourSearchMode.build(features, radius), n, weights, runMinPts).run();
     }
 
     /**
-     * Compute Euclidean distance between two histograms.
+     * Configured epsilon radius used to decide whether two feature vectors
+     * belong to the same watch.
+     *
+     * @return the epsilon radius
      */
-    private double euclideanDistance(double[] a, double[] b) {
-        double sum = 0.0;
-        for (int i = 0; i < a.length; i++) {
-            double diff = a[i] - b[i];
-            sum += diff * diff;
-        }
-        return Math.sqrt(sum);
+    public double getEps() {
+        return eps;
     }
 
     /**
-     * Compute a normalised RGB histogram for the given image.
+     * Compute features for all images in parallel.  Row {@code i} of the
+     * returned matrix belongs to {@code images.get(i)}.
      *
-     * <p>
-     * The image is resized to 64x64 to reduce computation.  Three 256‑bin
-     * histograms (one per colour channel) are concatenated into a single
-     * 768‑element array.  The histogram is then normalised to unit length.
+     * @param images image files
+     * @return one feature row per image
+     * @throws IOException if any image cannot be read
+     */
+    public FeatureMatrix extractFeatures(List<File> images) throws IOException {
+        return extractFeatures(images, null);
+    }
+
+    /**
+     * Compute features for images whose content hashes may already be
+     * known, e.g. from content‑addressed storage, so they are not hashed
+     * again before the feature store lookup.
      *
-     * @param file image file
-     * @return a double array of length 768 representing the histogram
-     * @throws IOException if the file cannot be read
-     */
-    private double[] computeHistogram(File file) throws IOException {
-        BufferedImage img = ImageIO.read(file);
-        if (img == null) {
-            // Return zero vector if image cannot be read.
-            return new double[768];
-        }
-        // Resize to 64x64
-        Image scaled = img.getScaledInstance(64, 64, Image.SCALE_SMOOTH);
-        BufferedImage buffered = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = buffered.createGraphics();
-        g2d.drawImage(scaled, 0, 0, null);
-        g2d.dispose();
-        int[] hist = new int[768];
-        for (int y = 0; y < 64; y++) {
-            for (int x = 0; x < 64; x++) {
-                int rgb = buffered.getRGB(x, y);
-                int r = (rgb >> 16) & 0xFF;
-                int g = (rgb >> 8) & 0xFF;
-                int b = rgb & 0xFF;
-                hist[r]++;
-                hist[256 + g]++;
-                hist[512 + b]++;
-            }
+     * @param images        image files
+     * @param contentHashes SHA‑256 hash of each image, with {@code null}
+     *                      entries for unknown hashes; may itself be
+     *                      {@code null}
+     * @return one feature row per image
+     * @throws IOException if any image cannot be read
+     */
+    public FeatureMatrix extractFeatures(List<File> images, List<String> contentHashes) throws IOException {
+        return extractFeatures(images, contentHashes, null);
+    }
+
+    /**
+     * Compute features, and the perceptual hashes used by
+     * {@link #cluster(FeatureMatrix, long[])} to collapse near‑duplicates.
+     *
+     * @param images           image files
+     * @param contentHashes    SHA‑256 hash of each image, with {@code null}
+     *                         entries for unknown hashes; may itself be
+     *                         {@code null}
+     * @param perceptualHashes array of the same length as {@code images}
+     *                         receiving the perceptual hash of each image,
+     *                         or {@code null}
+     * @return one feature row per image
+     * @throws IOException if any image cannot be read
+     */
+    public FeatureMatrix extractFeatures(List<File> images, List<String> contentHashes,
+                                         long[] perceptualHashes) throws IOException {
+        int n = images.size();
+        FeatureMatrix features = new FeatureMatrix(getFeatureDimension(), n);
+        if (n == 0) {
+            return features;
         }
-        double[] feature = new double[768];
-        double norm = 0.0;
-        for (int i = 0; i < hist.length; i++) {
-            feature[i] = hist[i];
-            norm += hist[i] * hist[i];
+        if (n == 1) {
+            store(features, perceptualHashes, 0, computeFeature(images.get(0), hashAt(contentHashes, 0)));
+            return features;
         }
-        norm = Math.sqrt(norm);
-        if (norm > 0) {
-            for (int i = 0; i < feature.length; i++) {
-                feature[i] /= norm;
+        List<Future<?>> futures = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int row = i;
+            File image = images.get(i);
+            String hash = hashAt(contentHashes, i);
+            // Each task writes its own row; Future.get() publishes the writes.
+            futures.add(extractionExecutor.submit(() -> {
+                store(features, perceptualHashes, row, computeFeature(image, hash));
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting image features");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
             }
+            throw new IOException("Failed to extract image features", cause);
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Number of components in each feature vector.
+     *
+     * @return feature dimension
+     */
+    public int getFeatureDimension() {
+        return featureExtractor.getDimension();
+    }
+
+    private int extractionThreadCount() {
+        return extractionThreads > 0 ? extractionThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Stop the extraction pool when the application context closes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        extractionExecutor.shutdownNow();
+    }
+
+    private static String hashAt(List<String> contentHashes, int i) {
+        return contentHashes != null ? contentHashes.get(i) : null;
+    }
+
+    /**
+     * Split a record into its feature row and perceptual hash.
+     */
+    private static void store(FeatureMatrix features, long[] perceptualHashes, int row, float[] record) {
+        features.set(row, record);
+        if (perceptualHashes != null) {
+            perceptualHashes[row] = PerceptualHash.unpack(record, features.dimension());
+        }
+    }
+
+    /**
+     * Return the feature and perceptual hash record for an image, reusing
+     * the record stored for identical content when available.
+     */
+    private float[] computeFeature(File file, String hash) throws IOException {
+        if (featureStore == null) {
+            return computeRecord(file);
+        }
+        if (hash == null) {
+            hash = ContentHash.sha256(file.toPath());
+        }
+        String formatTag = featureFormatTag();
+        float[] record = featureStore.get(formatTag, hash);
+        if (record == null || record.length != getFeatureDimension() + PerceptualHash.PACKED_LENGTH) {
+            record = computeRecord(file);
+            featureStore.put(formatTag, hash, record);
+        }
+        return record;
+    }
+
+    /**
+     * Tag under which the {@link FeatureStore} keeps the records computed by
+     * {@link #computeRecord}: the extractor and the record format version.
+     */
+    private String featureFormatTag() {
+        return featureExtractor.getName() + "/v" + RECORD_FORMAT_VERSION;
+    }
+
+    /**
+     * Decode an image into the feature grid while holding a decode permit,
+     * so that at most the configured number of images are held in memory.
+     */
+    private int[] decodeGrid(File file) throws IOException {
+        try {
+            decodePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to decode " + file);
+        }
+        try {
+            return decodeGridOnce(file);
+        } finally {
+            decodePermits.release();
+        }
+    }
+
+    /**
+     * Decode the feature grid of an image, writing its thumbnail from the
+     * same decode when it is a stored image.  A thumbnail that cannot be
+     * written is left to be generated on request.
+     */
+    private int[] decodeGridOnce(File file) throws IOException {
+        if (derivativeService == null || !derivativeService.accepts(file.toPath())) {
+            return DownscaledImageDecoder.decodeGrid(file, GRID_SIZE);
+        }
+        BufferedImage decoded = DownscaledImageDecoder.decodeSubsampled(file, derivativeService.getDecodeSide());
+        if (decoded == null) {
+            return null;
+        }
+        BufferedImage source = decoded;
+        try {
+            source = derivativeService.writeThumbnail(file.toPath(), decoded);
+        } catch (IOException e) {
+            logger.warn("Failed to write the thumbnail of {}: {}", file, e.toString());
+        }
+        return DownscaledImageDecoder.toGrid(source, GRID_SIZE);
+    }
+
+    /**
+     * Decode an image once and compute its normalised feature followed by
+     * its packed perceptual hash.  Unreadable images get a zero feature and
+     * hash.
+     *
+     * <p>
+     * The image is reduced to a 64x64 grid to reduce computation; the
+     * extractor and the hash both work on that grid.
+     */
+    private float[] computeRecord(File file) throws IOException {
+        FeatureExtractor extractor = featureExtractor;
+        int dimension = extractor.getDimension();
+        float[] record = new float[dimension + PerceptualHash.PACKED_LENGTH];
+        int[] grid = decodeGrid(file);
+        if (grid != null) {
+            extractor.extract(grid, GRID_SIZE, record);
+            extractor.getMetric().normalise(record, dimension);
+            PerceptualHash.pack(PerceptualHash.dHash(grid, GRID_SIZE), record, dimension);
         }
-        return feature;
+        return record;
     }
-}
\ No newline at end of file
+}
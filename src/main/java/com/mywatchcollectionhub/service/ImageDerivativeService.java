@@ -0,0 +1,274 @@
+package com.mywatchcollectionhub.service;
+
+import com.mywatchcollectionhub.service.clustering.DownscaledImageDecoder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates and locates the downscaled renditions ({@link DerivativeSize})
+ * of stored images, so clients need not download the originals to show a
+ * listing.
+ *
+ * <p>
+ * Derivatives are JPEG files kept beside the originals under
+ * {@code uploads/derivatives/<size>/}, mirroring the path of the original
+ * below {@code uploads/}.  Thumbnails are normally written during
+ * ingestion: {@link ImageClusteringService} decodes each new image once,
+ * subsampled to about the thumbnail's resolution, hands the raster to
+ * {@link #writeThumbnail} and computes its feature grid from the thumbnail,
+ * so the file is never decoded a second time and never at a finer
+ * resolution than the thumbnail needs.  Medium previews, the derivatives of
+ * images whose features came from the {@link FeatureStore}, and any lost
+ * since, are generated on first request by {@link #getDerivative} on a
+ * small bounded worker pool.  Concurrent requests for the same image share
+ * one generation.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    /** Directory below the upload directory holding the derivatives. */
+    private static final String DERIVATIVE_DIR = "derivatives";
+
+    /** Whether ingestion writes thumbnails while decoding images. */
+    @Value("${image.derivatives.enabled:true}")
+    private boolean enabled = true;
+
+    /** Threads generating missing derivatives on request. */
+    @Value("${image.derivatives.workers:2}")
+    private int workers = 2;
+
+    /**
+     * Generations allowed to wait for a worker; further requests for missing
+     * derivatives are rejected.
+     */
+    @Value("${image.derivatives.queue-capacity:32}")
+    private int queueCapacity = 32;
+
+    private final Path uploadRoot = Paths.get(ImageStorageService.UPLOAD_DIR).normalize();
+    private final Path derivativeRoot = uploadRoot.resolve(DERIVATIVE_DIR);
+    private final Map<Path, Future<?>> inFlight = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Create the worker pool generating missing derivatives.
+     */
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "image-derivative-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Whether a thumbnail should be written for an image being decoded
+     * during ingestion: generation is enabled and the file is a stored
+     * original rather than a derivative or a file outside storage.
+     *
+     * @param image image file
+     * @return {@code true} if {@link #writeThumbnail} should be called
+     */
+    public boolean accepts(Path image) {
+        Path path = image.normalize();
+        return enabled && path.startsWith(uploadRoot) && !path.startsWith(derivativeRoot);
+    }
+
+    /**
+     * Smallest width and height to decode an image at during ingestion so
+     * that its thumbnail can be produced from the raster.
+     *
+     * @return decode size in pixels
+     */
+    public int getDecodeSide() {
+        return DerivativeSize.THUMBNAIL.maxSide();
+    }
+
+    /**
+     * Write the thumbnail of a stored image from a raster already decoded at
+     * {@link #getDecodeSide()} or larger.  A thumbnail already on disk is
+     * kept.
+     *
+     * @param image   stored original
+     * @param decoded decoded image
+     * @return the thumbnail rendition
+     * @throws IOException if writing the thumbnail fails
+     */
+    public BufferedImage writeThumbnail(Path image, BufferedImage decoded) throws IOException {
+        BufferedImage thumbnail = scale(decoded, DerivativeSize.THUMBNAIL.maxSide());
+        write(thumbnail, derivativePath(image, DerivativeSize.THUMBNAIL));
+        return thumbnail;
+    }
+
+    /**
+     * Write every derivative of a stored image from a raster decoded at the
+     * medium preview's resolution or larger.  Derivatives already on disk
+     * are kept.
+     */
+    private void writeDerivatives(Path image, BufferedImage decoded) throws IOException {
+        BufferedImage medium = scale(decoded, DerivativeSize.MEDIUM.maxSide());
+        BufferedImage thumbnail = scale(medium, DerivativeSize.THUMBNAIL.maxSide());
+        write(medium, derivativePath(image, DerivativeSize.MEDIUM));
+        write(thumbnail, derivativePath(image, DerivativeSize.THUMBNAIL));
+    }
+
+    /**
+     * Locate a derivative of a stored image, generating it first if it is
+     * missing.
+     *
+     * @param imagePath stored image path, as recorded in a watch
+     * @param size      wanted rendition
+     * @return the derivative file
+     * @throws IllegalArgumentException   if the path is not a stored image
+     * @throws NoSuchFileException        if the image does not exist
+     * @throws RejectedExecutionException if the derivative is missing and
+     *                                    too many are already being generated
+     * @throws IOException                if the image cannot be decoded
+     */
+    public Path getDerivative(String imagePath, DerivativeSize size) throws IOException {
+        Path image = Paths.get(imagePath).normalize();
+        if (!image.startsWith(uploadRoot) || image.startsWith(derivativeRoot)) {
+            throw new IllegalArgumentException("Not a stored image: " + imagePath);
+        }
+        if (!Files.isRegularFile(image)) {
+            throw new NoSuchFileException(imagePath);
+        }
+        Path target = derivativePath(image, size);
+        if (Files.isRegularFile(target)) {
+            return target;
+        }
+        Future<?> generation = inFlight.computeIfAbsent(image, k -> executor.submit(() -> {
+            generate(image);
+            return null;
+        }));
+        try {
+            generation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while generating derivatives of " + imagePath);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to generate derivatives of " + imagePath, cause);
+        } finally {
+            inFlight.remove(image, generation);
+        }
+        return target;
+    }
+
+    /**
+     * Stop the worker pool when the application context closes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void generate(Path image) throws IOException {
+        BufferedImage decoded = DownscaledImageDecoder.decodeSubsampled(image.toFile(),
+                DerivativeSize.MEDIUM.maxSide());
+        if (decoded == null) {
+            throw new IOException("Unsupported image format: " + image);
+        }
+        writeDerivatives(image, decoded);
+        logger.debug("Generated derivatives of {}", image);
+    }
+
+    /**
+     * Path of a derivative: the original's path below the upload directory,
+     * moved under the size's directory, with a {@code .jpg} extension
+     * appended unless it already has one.
+     */
+    private Path derivativePath(Path image, DerivativeSize size) {
+        Path relative = uploadRoot.relativize(image.normalize());
+        String name = relative.getFileName().toString();
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (!lower.endsWith(".jpg") && !lower.endsWith(".jpeg")) {
+            name = name + ".jpg";
+        }
+        Path parent = relative.getParent();
+        Path dir = derivativeRoot.resolve(size.parameter());
+        return (parent != null ? dir.resolve(parent) : dir).resolve(name);
+    }
+
+    /**
+     * Write a JPEG through a temporary file in the target directory, so
+     * readers never see a partial file.
+     */
+    private static void write(BufferedImage image, Path target) throws IOException {
+        if (Files.isRegularFile(target)) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".derivative-", ".tmp");
+        try {
+            if (!ImageIO.write(image, "jpg", temp.toFile())) {
+                throw new IOException("No JPEG writer available");
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Scale an image so its longer side is at most {@code maxSide}, halving
+     * repeatedly with bilinear filtering so large reductions stay smooth.
+     * The result is always an opaque RGB image suitable for JPEG.
+     */
+    static BufferedImage scale(BufferedImage source, int maxSide) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double factor = Math.min(1.0, (double) maxSide / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * factor));
+        int targetHeight = Math.max(1, (int) Math.round(height * factor));
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+}
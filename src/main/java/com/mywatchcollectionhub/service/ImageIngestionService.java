@@ -1,18 +1,31 @@
 package com.mywatchcollectionhub.service;
 
+import com.mywatchcollectionhub.model.IngestionJob;
+import com.mywatchcollectionhub.model.IngestionStage;
 import com.mywatchcollectionhub.model.Watch;
 import com.mywatchcollectionhub.service.ImageRecognitionService.WatchMetadata;
+import com.mywatchcollectionhub.service.IncrementalClusteringService.ImageGroup;
+import com.mywatchcollectionhub.service.clustering.ClusteringParameters;
+import com.mywatchcollectionhub.service.clustering.ClusteringResult;
+import com.mywatchcollectionhub.service.clustering.Dbscan;
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+import com.mywatchcollectionhub.service.metadata.WatchDetails;
+import com.mywatchcollectionhub.service.metadata.WatchKey;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,7 +37,9 @@ import org.slf4j.LoggerFactory;
  * This service saves uploaded images, clusters them using {@link ImageClusteringService},
  * performs basic recognition via {@link ImageRecognitionService}, enriches metadata via
  * {@link MetadataCollectionService} and finally persists {@link Watch} records using
- * {@link WatchService}.  It returns a list of newly created watch entities.
+ * {@link WatchService}, up to {@value #PERSIST_CHUNK_SIZE} per transaction.
+ * Clusters matching a watch already in the collection are attached to it by
+ * {@link IncrementalClusteringService} instead of creating a duplicate.  It returns the created or updated watch entities.
  */
 @Service
 public class ImageIngestionService {
@@ -33,95 +48,361 @@ public class ImageIngestionService {
      * logback configuration to capture these messages in the application log.
      */
     private static final Logger logger = LoggerFactory.getLogger(ImageIngestionService.class);
+    /**
+     * Number of clusters catalogued, and new watches persisted, per
+     * transaction.  Matches the JDBC batch size.
+     */
+    private static final int PERSIST_CHUNK_SIZE = 50;
     private final ImageStorageService storageService;
     private final ImageClusteringService clusteringService;
     private final ImageRecognitionService recognitionService;
     private final MetadataCollectionService metadataService;
     private final WatchService watchService;
+    private final IncrementalClusteringService incrementalClusteringService;
+    private final IngestionMetrics metrics;
 
     @Autowired
     public ImageIngestionService(ImageStorageService storageService,
                                 ImageClusteringService clusteringService,
                                 ImageRecognitionService recognitionService,
                                 MetadataCollectionService metadataService,
-                                WatchService watchService) {
+                                WatchService watchService,
+                                IncrementalClusteringService incrementalClusteringService,
+                                IngestionMetrics metrics) {
         this.storageService = storageService;
         this.clusteringService = clusteringService;
         this.recognitionService = recognitionService;
         this.metadataService = metadataService;
         this.watchService = watchService;
+        this.incrementalClusteringService = incrementalClusteringService;
+        this.metrics = metrics;
     }
 
     /**
      * Ingest uploaded images: save, cluster, analyse and persist watch records.
      *
-     * @param files uploaded image files
-     * @return list of persisted watch entities
+     * @param files      uploaded image files
+     * @param parameters clustering parameters overriding the configuration
+     * @return list of created or updated watch entities
      * @throws IOException if file saving or clustering fails
      */
-    public List<Watch> ingestImages(MultipartFile[] files) throws IOException {
-        // Step 1: persist images to local storage
+    public List<Watch> ingestImages(MultipartFile[] files, ClusteringParameters parameters) throws IOException {
+        return ingestStoredImages(saveImages(files), null, parameters);
+    }
+
+    /**
+     * Step 1 of ingestion: persist uploaded images to local storage.  Split
+     * out so that asynchronous jobs can store the upload while the request
+     * is still open and run the remaining steps later.
+     *
+     * @param files uploaded image files
+     * @return the stored images
+     * @throws IOException if saving any file fails
+     */
+    public List<StoredImage> saveImages(MultipartFile[] files) throws IOException {
         logger.info("Ingesting {} uploaded images", files != null ? files.length : 0);
-        List<File> stored = storageService.saveImages(files);
-        logger.info("Saved {} images to storage", stored.size());
+        List<StoredImage> stored = metrics.stage("save", () -> storageService.saveImages(files));
+        recordStored(stored);
+        return stored;
+    }
+
+    /**
+     * Cluster, analyse and persist images that are already in storage.
+     *
+     * <p>
+     * Without a job the first failing cluster aborts the ingest.  With a job,
+     * progress is reported to it and a failing cluster is recorded as a
+     * failed item while the remaining clusters are still processed.
+     *
+     * <p>
+     * Images that content‑addressed storage recognised as duplicates of an
+     * image already attached to a watch are skipped before any decoding, as
+     * are repeated copies of the same content within the batch.
+     *
+     * @param stored     stored images
+     * @param job        job to report progress to, or {@code null}
+     * @param parameters clustering parameters overriding the configuration
+     * @return list of created or updated watch entities
+     * @throws IOException if clustering fails
+     */
+    public List<Watch> ingestStoredImages(List<StoredImage> stored, IngestionJob job,
+                                          ClusteringParameters parameters) throws IOException {
+        return ingestStoredImages(stored, job, parameters, null);
+    }
+
+    /**
+     * Cluster, analyse and persist stored images, reporting the paths of the
+     * images that are catalogued as each chunk is persisted.
+     */
+    private List<Watch> ingestStoredImages(List<StoredImage> stored, IngestionJob job,
+                                           ClusteringParameters parameters,
+                                           Consumer<List<String>> onCatalogued) throws IOException {
+        if (job != null) {
+            job.setTotalImages(stored.size());
+            job.setStage(IngestionStage.CLUSTERING);
+        }
+        List<StoredImage> fresh = withoutCataloguedDuplicates(stored, onCatalogued);
+        List<File> files = new ArrayList<>(fresh.size());
+        List<String> hashes = new ArrayList<>(fresh.size());
+        for (StoredImage image : fresh) {
+            files.add(image.getFile());
+            hashes.add(image.getContentHash());
+        }
         // Step 2: cluster images to group by watch
-        // Cluster images into groups.  The clustering service now runs fully
-        // in Java and does not throw InterruptedException.
-        Map<File, Integer> clusterMap = clusteringService.clusterImages(stored);
-        // Group images by cluster id
-        Map<Integer, List<File>> clusters = new HashMap<>();
-        for (Map.Entry<File, Integer> entry : clusterMap.entrySet()) {
-            clusters.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+        long[] perceptualHashes = new long[files.size()];
+        FeatureMatrix features = metrics.stage("extract",
+                () -> clusteringService.extractFeatures(files, hashes, perceptualHashes));
+        ClusteringResult result = metrics.uncheckedStage("cluster",
+                () -> clusteringService.cluster(features, perceptualHashes, parameters));
+        metrics.clusteringParameters(result);
+        int[] labels = result.getLabels();
+        // Group image indices by cluster id.  Noise images belong to no
+        // cluster, so each one is catalogued on its own.
+        Map<Integer, List<Integer>> clusters = new HashMap<>();
+        List<List<Integer>> memberLists = new ArrayList<>();
+        int noise = 0;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == Dbscan.NOISE) {
+                memberLists.add(List.of(i));
+                noise++;
+                continue;
+            }
+            List<Integer> members = clusters.get(labels[i]);
+            if (members == null) {
+                members = new ArrayList<>();
+                clusters.put(labels[i], members);
+                memberLists.add(members);
+            }
+            members.add(i);
+        }
+        metrics.clustered(clusters.size(), noise);
+        logger.info("Clustered images into {} cluster(s) and {} noise image(s) with eps={}{} and minPts={}",
+                clusters.size(), noise, result.getEps(), result.isEpsEstimated() ? " (estimated)" : "",
+                result.getMinPts());
+        if (job != null) {
+            job.clustered(result.getEps(), result.getMinPts(), result.isEpsEstimated());
+            job.setTotalItems(memberLists.size());
+            job.setStage(IngestionStage.CATALOGUING);
+        }
+        BiConsumer<ImageGroup, RuntimeException> onFailure = null;
+        if (job != null) {
+            onFailure = (group, e) -> {
+                logger.warn("Failed to catalogue images {}: {}", group.getImagePaths(), e.toString());
+                job.itemFailed(group.getImagePaths() + ": " + e);
+            };
         }
-        logger.info("Clustered images into {} group(s)", clusters.size());
+        // Attach to an existing watch when the images match one already in
+        // the collection, otherwise create a new watch.  Clusters are
+        // recognised and enriched, and new watches persisted, a chunk at a
+        // time: metadata lookups and inserts are batched while job progress
+        // still advances during a large ingest.
         List<Watch> created = new ArrayList<>();
-        for (Map.Entry<Integer, List<File>> entry : clusters.entrySet()) {
-            List<File> group = entry.getValue();
-            // Step 3: analyse images to extract basic metadata (stub)
-            WatchMetadata meta = recognitionService.analyzeImages(group);
-            // Step 4: enrich metadata (stub)
-            String description = metadataService.fetchDescription(meta.brand, meta.model);
-            Double value = metadataService.estimateResaleValue(meta.brand, meta.model, meta.year);
-            // Step 5: persist watch
-            Watch watch = new Watch();
-            watch.setBrand(meta.brand != null ? meta.brand : "Unknown");
-            watch.setModel(meta.model != null ? meta.model : "Unknown");
-            watch.setYear(meta.year);
-            watch.setResaleValue(value != null ? value : meta.approximateValue);
-            watch.setDescription(description != null ? description : meta.description);
-            // Save relative paths to images for later retrieval
-            List<String> imagePaths = group.stream()
-                    .map(f -> "uploads" + File.separator + f.getName())
-                    .collect(Collectors.toList());
-            watch.setImageUrls(imagePaths);
-            watch.setReferenceLinks(new ArrayList<>());
-            watch.setTags(new ArrayList<>());
-            watch = watchService.save(watch);
-            logger.info("Created watch: brand={}, model={}, year={}, images={}",
-                    watch.getBrand(), watch.getModel(), watch.getYear(), imagePaths.size());
-            created.add(watch);
+        for (int from = 0; from < memberLists.size(); from += PERSIST_CHUNK_SIZE) {
+            List<WatchKey> keys = new ArrayList<>();
+            Map<WatchKey, WatchDetails> details = new HashMap<>();
+            List<ImageGroup> chunk = new ArrayList<>();
+            int to = Math.min(from + PERSIST_CHUNK_SIZE, memberLists.size());
+            for (List<Integer> members : memberLists.subList(from, to)) {
+                chunk.add(prepareGroup(members, fresh, features, keys, details));
+            }
+            details.putAll(metrics.uncheckedStage("enrich", () -> metadataService.enrich(keys)));
+            List<Watch> watches = incrementalClusteringService.attachOrCreate(chunk, result.getEps(), onFailure);
+            List<String> catalogued = new ArrayList<>();
+            for (int g = 0; g < watches.size(); g++) {
+                Watch watch = watches.get(g);
+                if (watch == null) {
+                    continue;
+                }
+                created.add(watch);
+                catalogued.addAll(chunk.get(g).getImagePaths());
+                if (job != null) {
+                    job.itemCompleted(watch.getId());
+                }
+            }
+            if (onCatalogued != null && !catalogued.isEmpty()) {
+                onCatalogued.accept(catalogued);
+            }
         }
         return created;
     }
 
+    /**
+     * Drop images that need no further processing: content already attached
+     * to a watch, and second and later copies of the same stored file within
+     * the batch.  Content already attached to a watch is reported as
+     * catalogued straight away.
+     */
+    private List<StoredImage> withoutCataloguedDuplicates(List<StoredImage> stored,
+                                                          Consumer<List<String>> onCatalogued) {
+        List<StoredImage> fresh = new ArrayList<>(stored.size());
+        List<String> catalogued = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (StoredImage image : stored) {
+            if (!seen.add(image.getUrl())) {
+                continue;
+            }
+            if (image.isDuplicate() && watchService.isImageCatalogued(image.getUrl())) {
+                catalogued.add(image.getUrl());
+                continue;
+            }
+            fresh.add(image);
+        }
+        if (onCatalogued != null && !catalogued.isEmpty()) {
+            onCatalogued.accept(catalogued);
+        }
+        if (fresh.size() < stored.size()) {
+            metrics.duplicatesSkipped(stored.size() - fresh.size());
+            logger.info("Skipped {} duplicate image(s) already in the collection", stored.size() - fresh.size());
+        }
+        return fresh;
+    }
+
+    /**
+     * Recognise a cluster of images and describe it for cataloguing.  The
+     * key of the recognised watch is added to {@code keys}; its metadata is
+     * expected in {@code details} by the time a new watch is created.
+     */
+    private ImageGroup prepareGroup(List<Integer> members, List<StoredImage> fresh, FeatureMatrix features,
+                                    List<WatchKey> keys, Map<WatchKey, WatchDetails> details) {
+        List<String> names = new ArrayList<>(members.size());
+        List<float[]> groupFeatures = new ArrayList<>(members.size());
+        // Save relative paths to images for later retrieval
+        List<String> imagePaths = new ArrayList<>(members.size());
+        for (int i : members) {
+            names.add(fresh.get(i).getOriginalName());
+            groupFeatures.add(features.row(i));
+            imagePaths.add(fresh.get(i).getUrl());
+        }
+        // Step 3: analyse images to extract basic metadata (stub)
+        WatchMetadata meta;
+        try {
+            meta = metrics.uncheckedStage("recognise", () -> recognitionService.analyzeFileNames(names));
+        } catch (RuntimeException e) {
+            // The images can still match an existing watch; only creating a
+            // new watch for them fails.
+            return new ImageGroup(groupFeatures, imagePaths, () -> {
+                throw e;
+            });
+        }
+        WatchKey key = new WatchKey(meta.brand, meta.model, meta.year);
+        keys.add(key);
+        return new ImageGroup(groupFeatures, imagePaths, () -> createWatch(meta, details.get(key), imagePaths));
+    }
+
+    /**
+     * Build a new watch from recognised and enriched metadata.  The watch is
+     * persisted by the caller together with the rest of its chunk.
+     */
+    private Watch createWatch(WatchMetadata meta, WatchDetails details, List<String> imagePaths) {
+        // Step 4: combine with the enriched metadata, preferring looked up values
+        String description = details != null ? details.getDescription() : null;
+        Double value = details != null ? details.getResaleValue() : null;
+        Watch watch = new Watch();
+        watch.setBrand(meta.brand != null ? meta.brand : "Unknown");
+        watch.setModel(meta.model != null ? meta.model : "Unknown");
+        watch.setYear(meta.year);
+        watch.setResaleValue(value != null ? value : meta.approximateValue);
+        watch.setDescription(description != null ? description : meta.description);
+        watch.setImageUrls(new ArrayList<>(imagePaths));
+        watch.setReferenceLinks(new ArrayList<>());
+        watch.setTags(new ArrayList<>());
+        return watch;
+    }
+
     /**
      * Convenience method to ingest a list of image files stored on disk.
      *
      * <p>
-     * This method wraps each {@link java.io.File} in a {@link SimpleMultipartFile}
-     * so that it can be passed through the existing ingestion pipeline.  It
-     * returns the list of persisted {@link Watch} entities created from the
-     * processed images.
+     * The files are copied into storage with
+     * {@link ImageStorageService#saveFiles(List)}, which streams them through
+     * file channels, so memory use does not grow with the size of the files.
+     * It returns the list of persisted {@link Watch} entities created from
+     * the processed images.
      *
      * @param files the image files to ingest
      * @return list of persisted watch entities
      * @throws IOException if reading or saving any image fails
      */
     public List<Watch> ingestImageFiles(List<File> files) throws IOException {
-        MultipartFile[] mfiles = new MultipartFile[files.size()];
+        return ingestImageFiles(files, null, null);
+    }
+
+    /**
+     * Ingest image files stored on disk whose content hashes the caller may
+     * already have computed, reporting progress as it goes.
+     *
+     * <p>
+     * Known hashes are carried into storage and on to the feature store, so
+     * the files are not read again just to hash them.  Each time a chunk of
+     * watches is persisted, the files whose images it catalogued are passed
+     * to {@code onCatalogued}, as are files whose content was catalogued
+     * before and empty files, which have nothing to catalogue.  A failure
+     * part way through therefore leaves the files reported so far ingested.
+     *
+     * @param files         the image files to ingest
+     * @param contentHashes SHA‑256 hash of each file, or {@code null}
+     * @param onCatalogued  receives the files as they are catalogued, or {@code null}
+     * @return list of persisted watch entities
+     * @throws IOException if reading or saving any image fails
+     */
+    public List<Watch> ingestImageFiles(List<File> files, List<String> contentHashes,
+                                        Consumer<List<File>> onCatalogued) throws IOException {
+        logger.info("Ingesting {} image files", files.size());
+        List<Path> sources = new ArrayList<>(files.size());
+        List<String> hashes = contentHashes != null ? new ArrayList<>(files.size()) : null;
+        List<File> empty = new ArrayList<>();
         for (int i = 0; i < files.size(); i++) {
-            mfiles[i] = new SimpleMultipartFile(files.get(i));
+            File file = files.get(i);
+            if (file.length() == 0) {
+                // Storage skips empty files, which would break the pairing
+                // of sources and stored images below.
+                empty.add(file);
+                continue;
+            }
+            sources.add(file.toPath());
+            if (hashes != null) {
+                hashes.add(contentHashes.get(i));
+            }
+        }
+        if (onCatalogued != null && !empty.isEmpty()) {
+            onCatalogued.accept(empty);
+        }
+        List<StoredImage> stored = metrics.stage("save", () -> storageService.saveFiles(sources, hashes));
+        recordStored(stored);
+        Consumer<List<String>> onImagesCatalogued = null;
+        if (onCatalogued != null) {
+            if (stored.size() != sources.size()) {
+                throw new IOException("Image files were emptied while being ingested");
+            }
+            // Identical files share one stored image and are reported together.
+            Map<String, List<File>> filesByUrl = new HashMap<>();
+            for (int i = 0; i < stored.size(); i++) {
+                filesByUrl.computeIfAbsent(stored.get(i).getUrl(), url -> new ArrayList<>())
+                        .add(sources.get(i).toFile());
+            }
+            onImagesCatalogued = urls -> {
+                List<File> catalogued = new ArrayList<>();
+                for (String url : urls) {
+                    catalogued.addAll(filesByUrl.getOrDefault(url, List.of()));
+                }
+                onCatalogued.accept(catalogued);
+            };
+        }
+        return ingestStoredImages(stored, null, ClusteringParameters.DEFAULTS, onImagesCatalogued);
+    }
+
+    /**
+     * Log and count stored images.  Duplicates of content already in storage
+     * were not written, so only new files count towards the bytes written.
+     */
+    private void recordStored(List<StoredImage> stored) {
+        long bytes = 0;
+        for (StoredImage image : stored) {
+            if (!image.isDuplicate()) {
+                bytes += image.getFile().length();
+            }
         }
-        return ingestImages(mfiles);
+        metrics.imagesStored(stored.size(), bytes);
+        logger.info("Saved {} images to storage ({} bytes written)", stored.size(), bytes);
     }
-}
\ No newline at end of file
+}
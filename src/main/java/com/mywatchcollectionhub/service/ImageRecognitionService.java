@@ -3,6 +3,7 @@ package com.mywatchcollectionhub.service;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,14 +35,31 @@ public class ImageRecognitionService {
      * @return extracted watch metadata
      */
     public WatchMetadata analyzeImages(List<File> images) {
+        List<String> names = new ArrayList<>();
+        if (images != null) {
+            for (File image : images) {
+                names.add(image.getName());
+            }
+        }
+        return analyzeFileNames(names);
+    }
+
+    /**
+     * Extract metadata from the names images were uploaded with.  Used for
+     * content‑addressed storage, where the stored files are named after
+     * their hash.
+     *
+     * @param fileNames original file names of the images
+     * @return extracted watch metadata
+     */
+    public WatchMetadata analyzeFileNames(List<String> fileNames) {
         // Try to infer metadata from the file names as a simple heuristic.
         // This basic implementation looks for file names formatted as
         // "Brand_Model_Year.ext" or containing the brand name as a prefix.
         WatchMetadata meta = new WatchMetadata();
-        if (images != null && !images.isEmpty()) {
+        if (fileNames != null && !fileNames.isEmpty()) {
             // Examine the first file name in the cluster.
-            File first = images.get(0);
-            String name = first.getName();
+            String name = fileNames.get(0);
             // Remove extension
             int dot = name.lastIndexOf('.');
             if (dot > 0) {
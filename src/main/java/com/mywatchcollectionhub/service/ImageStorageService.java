@@ -1,15 +1,33 @@
 package com.mywatchcollectionhub.service;
 
+import com.mywatchcollectionhub.config.ExecutionConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 /**
  * Service responsible for storing uploaded images on the local filesystem.
@@ -17,53 +35,363 @@ import java.util.List;
  * <p>
  * All uploaded images are saved into an "uploads" directory in the project root.
  * If the directory does not exist it will be created on demand.  The service
- * returns a list of {@link File} objects pointing to the stored files which
- * can then be passed to downstream processing (e.g., clustering).  Filenames
- * are preserved to aid debugging; collisions are resolved by appending a
- * timestamp.
+ * returns a list of {@link StoredImage} objects pointing to the stored files
+ * which can then be passed to downstream processing (e.g., clustering).
+ *
+ * <p>
+ * With the {@link StorageLayout#NAMED} layout filenames are preserved to aid
+ * debugging; collisions are resolved by appending a timestamp.  With the
+ * {@link StorageLayout#CONTENT_ADDRESSED} layout each file is named after the
+ * SHA‑256 hash of its content, so identical bytes are stored once: a
+ * duplicate upload is hashed while it streams to a temporary file, the
+ * temporary file is discarded and the existing file is returned, flagged as
+ * a duplicate.
+ *
+ * <p>
+ * Content is always streamed: uploads are copied from their input stream and
+ * files already on disk are copied with {@link FileChannel#transferTo}, so no
+ * image is ever held on the heap in full.
+ *
+ * <p>
+ * With the content‑addressed layout the files of one call are copied
+ * concurrently on the shared I/O executor (virtual threads when enabled), at
+ * most {@code image.storage.parallel-copies} at a time.  Concurrent copies of
+ * the same content are already resolved by the atomic move into place.  The
+ * named layout copies one file at a time, because its collision check is not
+ * atomic.
  */
 @Service
 public class ImageStorageService {
 
-    private static final String UPLOAD_DIR = "uploads";
+    /**
+     * Directory, relative to the working directory, that stored images are
+     * written to.  Stored image paths start with it.
+     */
+    public static final String UPLOAD_DIR = "uploads";
+
+    /** How stored files are named; see {@link StorageLayout}. */
+    @Value("${image.storage.layout:named}")
+    private StorageLayout layout = StorageLayout.NAMED;
+
+    /** Maximum number of files copied concurrently by one call. */
+    @Value("${image.storage.parallel-copies:16}")
+    private int parallelCopies = 16;
+
+    private final ExecutorService ioExecutor;
+    private final Path uploadRoot;
+
+    @Autowired
+    public ImageStorageService(@Qualifier(ExecutionConfig.IO_EXECUTOR) ExecutorService ioExecutor) {
+        this(ioExecutor, Paths.get(UPLOAD_DIR));
+    }
+
+    /**
+     * Create a storage service that copies one file at a time on the calling
+     * thread.
+     */
+    public ImageStorageService() {
+        this(null, Paths.get(UPLOAD_DIR));
+    }
+
+    /**
+     * Create a storage service that writes below the given directory instead
+     * of {@value #UPLOAD_DIR}, e.g. for benchmarks.  Images stored there are
+     * not served or derived by the other services.
+     *
+     * @param ioExecutor executor for concurrent copies, or {@code null} to
+     *                   copy one file at a time on the calling thread
+     * @param uploadRoot directory to store images in
+     */
+    public ImageStorageService(ExecutorService ioExecutor, Path uploadRoot) {
+        this.ioExecutor = ioExecutor;
+        this.uploadRoot = uploadRoot;
+    }
 
     /**
      * Save an array of uploaded MultipartFiles to the local filesystem.
      *
      * @param files the uploaded multipart files
-     * @return a list of {@link File} objects representing the saved files
+     * @return the stored images, one per non‑empty upload
      * @throws IOException if saving any file fails
      */
-    public List<File> saveImages(MultipartFile[] files) throws IOException {
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (Files.notExists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-        List<File> saved = new ArrayList<>();
+    public List<StoredImage> saveImages(MultipartFile[] files) throws IOException {
+        List<Callable<StoredImage>> copies = new ArrayList<>(files.length);
         for (MultipartFile mf : files) {
             if (mf.isEmpty()) {
                 continue;
             }
-            String originalName = mf.getOriginalFilename();
-            // Fallback to generic name if original is null
-            if (originalName == null || originalName.trim().isEmpty()) {
-                originalName = "uploaded";
-            }
-            // Resolve potential collisions by appending current time in millis
-            Path target = uploadPath.resolve(originalName);
-            if (Files.exists(target)) {
-                String baseName = originalName;
-                String ext = "";
-                int idx = originalName.lastIndexOf('.');
-                if (idx > 0) {
-                    baseName = originalName.substring(0, idx);
-                    ext = originalName.substring(idx);
+            copies.add(() -> {
+                try (InputStream in = mf.getInputStream()) {
+                    return saveStream(mf.getOriginalFilename(), in);
                 }
-                target = uploadPath.resolve(baseName + "_" + System.currentTimeMillis() + ext);
+            });
+        }
+        return copyAll(copies);
+    }
+
+    /**
+     * Copy image files that are already on disk into storage.  Empty files
+     * are skipped, as for uploads.
+     *
+     * @param sources files to store
+     * @return the stored images, one per non‑empty source
+     * @throws IOException if copying any file fails
+     */
+    public List<StoredImage> saveFiles(List<Path> sources) throws IOException {
+        return saveFiles(sources, null);
+    }
+
+    /**
+     * Copy image files that are already on disk into storage, reusing
+     * content hashes the caller has already computed instead of reading the
+     * files an extra time.  The hashes are carried on the stored images
+     * whatever the layout.
+     *
+     * @param sources       files to store
+     * @param contentHashes SHA‑256 hash of each source, or {@code null}
+     *                      entirely or for single sources where unknown
+     * @return the stored images, one per non‑empty source
+     * @throws IOException if copying any file fails
+     */
+    public List<StoredImage> saveFiles(List<Path> sources, List<String> contentHashes) throws IOException {
+        List<Callable<StoredImage>> copies = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            Path source = sources.get(i);
+            if (Files.size(source) == 0) {
+                continue;
+            }
+            String hash = contentHashes != null ? contentHashes.get(i) : null;
+            copies.add(() -> saveFile(source, hash));
+        }
+        return copyAll(copies);
+    }
+
+    private StoredImage saveFile(Path source, String knownHash) throws IOException {
+        String name = source.getFileName().toString();
+        if (layout != StorageLayout.CONTENT_ADDRESSED) {
+            Path target = resolveTarget(name);
+            transfer(source, target, StandardOpenOption.CREATE_NEW);
+            return stored(target, name, knownHash, false);
+        }
+        // Hashing first means a duplicate is only read, never written.
+        String hash = knownHash != null ? knownHash : ContentHash.sha256(source);
+        Path existing = findStored(hash);
+        if (existing != null) {
+            return stored(existing, name, hash, true);
+        }
+        Path temp = createTempFile();
+        try {
+            transfer(source, temp, StandardOpenOption.TRUNCATE_EXISTING);
+            return commit(temp, name, hash);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Run copies, concurrently where the layout allows it, and return their
+     * results in order.
+     */
+    private List<StoredImage> copyAll(List<Callable<StoredImage>> copies) throws IOException {
+        List<StoredImage> saved = new ArrayList<>(copies.size());
+        if (ioExecutor == null || layout != StorageLayout.CONTENT_ADDRESSED || copies.size() < 2) {
+            for (Callable<StoredImage> copy : copies) {
+                saved.add(call(copy));
+            }
+            return saved;
+        }
+        Semaphore permits = new Semaphore(Math.max(1, parallelCopies));
+        List<Future<StoredImage>> futures = new ArrayList<>(copies.size());
+        try {
+            for (Callable<StoredImage> copy : copies) {
+                permits.acquire();
+                futures.add(ioExecutor.submit(() -> {
+                    try {
+                        return copy.call();
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<StoredImage> future : futures) {
+                saved.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while storing images");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to store images", cause);
+        } finally {
+            for (Future<StoredImage> future : futures) {
+                future.cancel(true);
             }
-            Files.copy(mf.getInputStream(), target);
-            saved.add(target.toFile());
         }
         return saved;
     }
-}
\ No newline at end of file
+
+    private static StoredImage call(Callable<StoredImage> copy) throws IOException {
+        try {
+            return copy.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to store image", e);
+        }
+    }
+
+    /**
+     * Save the content of a stream under the given original file name.  The
+     * stream is read to the end but not closed.
+     *
+     * @param originalName file name supplied by the client, may be {@code null}
+     * @param in           image content
+     * @return the stored image
+     * @throws IOException if writing the file fails
+     */
+    public StoredImage saveStream(String originalName, InputStream in) throws IOException {
+        if (layout != StorageLayout.CONTENT_ADDRESSED) {
+            Path target = resolveTarget(originalName);
+            Files.copy(in, target);
+            return stored(target, originalName, null, false);
+        }
+        // The hash is only known once the content has been read, so stream
+        // it to a temporary file while hashing and move it into place after.
+        MessageDigest digest = ContentHash.newDigest();
+        Path temp = createTempFile();
+        try {
+            Files.copy(new DigestInputStream(in, digest), temp, StandardCopyOption.REPLACE_EXISTING);
+            return commit(temp, originalName, ContentHash.toHex(digest.digest()));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Move a fully written temporary file to its content‑addressed path, or
+     * leave it to be discarded if the content is already stored.
+     */
+    private StoredImage commit(Path temp, String originalName, String hash) throws IOException {
+        Path existing = findStored(hash);
+        if (existing != null) {
+            return stored(existing, originalName, hash, true);
+        }
+        Path target = bucket(hash).resolve(hash + extension(originalName));
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // A concurrent upload of the same content got there first.
+            return stored(target, originalName, hash, true);
+        }
+        return stored(target, originalName, hash, false);
+    }
+
+    /**
+     * Locate the stored file for a content hash regardless of the extension
+     * it was first uploaded with.
+     *
+     * @return the stored file, or {@code null} if the content is new
+     */
+    private Path findStored(String hash) throws IOException {
+        Path dir = bucket(hash);
+        try (DirectoryStream<Path> matches = Files.newDirectoryStream(dir, hash + "*")) {
+            for (Path match : matches) {
+                String name = match.getFileName().toString();
+                if (name.length() == hash.length() || name.charAt(hash.length()) == '.') {
+                    return match;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fan‑out directory for a hash, e.g. {@code uploads/ab/cd}, created on
+     * demand.  Two levels of 256 directories keep every directory small even
+     * for millions of images.
+     */
+    private Path bucket(String hash) throws IOException {
+        Path dir = uploadRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4));
+        Files.createDirectories(dir);
+        return dir;
+    }
+
+    /**
+     * Create a temporary file inside the upload directory, so that moving it
+     * into place is a rename on the same file system.
+     */
+    private Path createTempFile() throws IOException {
+        Files.createDirectories(uploadRoot);
+        return Files.createTempFile(uploadRoot, ".upload-", ".tmp");
+    }
+
+    /**
+     * Lower case extension of a file name including the dot, or an empty
+     * string if it has none.
+     */
+    private static String extension(String name) {
+        if (name == null) {
+            return "";
+        }
+        int idx = name.lastIndexOf('.');
+        if (idx <= 0 || idx == name.length() - 1 || name.indexOf('/', idx) >= 0 || name.indexOf('\\', idx) >= 0) {
+            return "";
+        }
+        return name.substring(idx).toLowerCase(Locale.ROOT);
+    }
+
+    private static StoredImage stored(Path path, String originalName, String hash, boolean duplicate) {
+        String name = originalName != null && !originalName.trim().isEmpty()
+                ? originalName : path.getFileName().toString();
+        return new StoredImage(path.toFile(), name, path.toString(), hash, duplicate);
+    }
+
+    /**
+     * Copy a file with channel transfers so the content never passes through
+     * the heap.
+     */
+    private static void transfer(Path source, Path target, StandardOpenOption mode) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, mode, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    /**
+     * Pick the storage path for a file name, creating the upload directory
+     * if needed.
+     */
+    private Path resolveTarget(String originalName) throws IOException {
+        Path uploadPath = uploadRoot;
+        if (Files.notExists(uploadPath)) {
+            Files.createDirectories(uploadPath);
+        }
+        // Fallback to generic name if original is null
+        if (originalName == null || originalName.trim().isEmpty()) {
+            originalName = "uploaded";
+        }
+        // Resolve potential collisions by appending current time in millis
+        Path target = uploadPath.resolve(originalName);
+        if (Files.exists(target)) {
+            String baseName = originalName;
+            String ext = "";
+            int idx = originalName.lastIndexOf('.');
+            if (idx > 0) {
+                baseName = originalName.substring(0, idx);
+                ext = originalName.substring(idx);
+            }
+            target = uploadPath.resolve(baseName + "_" + System.currentTimeMillis() + ext);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,360 @@
+package com.mywatchcollectionhub.service;
+
+import com.mywatchcollectionhub.config.ExecutionConfig;
+import com.mywatchcollectionhub.model.Watch;
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+import com.mywatchcollectionhub.service.clustering.NeighbourSearchMode;
+import com.mywatchcollectionhub.service.clustering.WatchFeatureIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Matches newly clustered images against the watches already in the
+ * collection.
+ *
+ * <p>
+ * Each ingest only clusters the images in its own batch.  Without this
+ * service a second upload of the same watch would therefore always create a
+ * duplicate {@link Watch}.  The service keeps a {@link WatchFeatureIndex} of
+ * the feature vectors of every image already attached to a watch; a batch
+ * cluster with any image close to an existing image, within the epsilon
+ * radius the batch itself was clustered with, is attached to that watch
+ * instead of creating a new one.  The index is built from the database in
+ * the background once the application is ready (features come from the
+ * {@link FeatureStore}, so this is mostly hashing) and then maintained
+ * incrementally, so the cost of an ingest scales with the batch size rather
+ * than with the size of the collection.  An ingest that reaches the
+ * cataloguing step before the build has finished waits for it without
+ * holding the cataloguing lock.  The images of a deleted watch are dropped
+ * from the index when its {@link WatchDeletedEvent} arrives, and those of a
+ * watch saved outside ingestion are re‑indexed when its
+ * {@link WatchSavedEvent} arrives.
+ */
+@Service
+public class IncrementalClusteringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalClusteringService.class);
+
+    /**
+     * Whether new uploads are matched against existing watches.  When
+     * disabled every batch cluster creates a new watch.
+     */
+    @Value("${image.clustering.incremental:true}")
+    private boolean enabled = true;
+
+    @Value("${image.clustering.neighbour-index:vp-tree}")
+    private NeighbourSearchMode neighbourSearchMode = NeighbourSearchMode.VP_TREE;
+
+    private final ImageClusteringService clusteringService;
+    private final WatchService watchService;
+    private final IngestionMetrics metrics;
+    private final ExecutorService ioExecutor;
+
+    /** Guards starting a build of {@link #index}, not the build itself. */
+    private final Object buildLock = new Object();
+    private CompletableFuture<WatchFeatureIndex> index;
+
+    @Autowired
+    public IncrementalClusteringService(ImageClusteringService clusteringService, WatchService watchService,
+                                        IngestionMetrics metrics,
+                                        @Qualifier(ExecutionConfig.IO_EXECUTOR) ExecutorService ioExecutor) {
+        this.clusteringService = clusteringService;
+        this.watchService = watchService;
+        this.metrics = metrics;
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * Start building the index in the background once the application is
+     * ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexInBackground() {
+        if (enabled) {
+            index();
+        }
+    }
+
+    /**
+     * Drop the images of a deleted watch from the index, once the build has
+     * finished if it is still running.
+     *
+     * @param event the deletion
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void watchDeleted(WatchDeletedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        index().thenAccept(watchIndex -> {
+            synchronized (this) {
+                watchIndex.removeWatch(event.getWatchId());
+            }
+        });
+    }
+
+    /**
+     * Replace the indexed images of a watch saved outside ingestion, e.g.
+     * through the REST API, with its current images.  Features are
+     * extracted on the I/O executor once the build has finished; only the
+     * swap takes the cataloguing lock.
+     *
+     * @param event the save
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void watchSaved(WatchSavedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        index().thenAcceptAsync(watchIndex -> {
+            List<File> files = new ArrayList<>();
+            for (String url : event.getImageUrls()) {
+                Path path = Paths.get(url);
+                if (Files.isRegularFile(path)) {
+                    files.add(path.toFile());
+                }
+            }
+            FeatureMatrix features;
+            try {
+                features = clusteringService.extractFeatures(files);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            synchronized (this) {
+                watchIndex.removeWatch(event.getWatchId());
+                for (int i = 0; i < features.size(); i++) {
+                    watchIndex.add(features.row(i), event.getWatchId());
+                }
+            }
+        }, ioExecutor).exceptionally(e -> {
+            logger.warn("Failed to index the images of watch id={}", event.getWatchId(), e);
+            return null;
+        });
+    }
+
+    /**
+     * A cluster of newly stored images to catalogue.
+     */
+    public static final class ImageGroup {
+        private final List<float[]> features;
+        private final List<String> imagePaths;
+        private final Supplier<Watch> newWatch;
+
+        /**
+         * @param features   feature vectors of the cluster's images
+         * @param imagePaths stored paths of the cluster's images
+         * @param newWatch   builds a new, not yet persisted watch for the
+         *                   images; only invoked when no existing watch
+         *                   matches
+         */
+        public ImageGroup(List<float[]> features, List<String> imagePaths, Supplier<Watch> newWatch) {
+            this.features = features;
+            this.imagePaths = imagePaths;
+            this.newWatch = newWatch;
+        }
+
+        public List<String> getImagePaths() {
+            return imagePaths;
+        }
+    }
+
+    /**
+     * Attach each cluster of new images to the existing watch it matches,
+     * or create a new watch for it.
+     *
+     * <p>
+     * Matching and creation happen under one lock so that concurrent
+     * ingests of the same watch cannot both create it.  The lock is only
+     * taken once the index is available.  The new watches of
+     * all groups are persisted together with {@link WatchService#saveAll},
+     * in one transaction whose inserts are batched, timed as the
+     * {@code persist} stage of {@link IngestionMetrics}.
+     *
+     * @param groups    clusters to catalogue
+     * @param eps       radius the groups were clustered with; an existing
+     *                  image within it of a group's image is a match
+     * @param onFailure receives each group that could not be catalogued,
+     *                  with the cause; when {@code null} the first failure
+     *                  is thrown instead
+     * @return for each group, in order, the existing watch its images were
+     *         attached to or the newly created watch; {@code null} for
+     *         groups passed to {@code onFailure}
+     * @throws IOException if the index could not be built because an
+     *                     existing image cannot be read
+     */
+    public List<Watch> attachOrCreate(List<ImageGroup> groups, double eps,
+                                      BiConsumer<ImageGroup, RuntimeException> onFailure)
+            throws IOException {
+        WatchFeatureIndex watchIndex = enabled ? awaitIndex() : null;
+        synchronized (this) {
+            return attachOrCreate(watchIndex, groups, eps, onFailure);
+        }
+    }
+
+    private List<Watch> attachOrCreate(WatchFeatureIndex watchIndex, List<ImageGroup> groups, double eps,
+                                       BiConsumer<ImageGroup, RuntimeException> onFailure) {
+        Watch[] result = new Watch[groups.size()];
+        List<Watch> created = new ArrayList<>();
+        List<Integer> createdGroups = new ArrayList<>();
+        for (int g = 0; g < groups.size(); g++) {
+            ImageGroup group = groups.get(g);
+            try {
+                Watch watch = watchIndex != null
+                        ? findMatch(watchIndex, group.features, eps, group.imagePaths).orElse(null)
+                        : null;
+                if (watch != null) {
+                    logger.info("Attached {} image(s) to existing watch id={}", group.imagePaths.size(), watch.getId());
+                    addToIndex(watchIndex, group, watch);
+                    result[g] = watch;
+                } else {
+                    created.add(group.newWatch.get());
+                    createdGroups.add(g);
+                }
+            } catch (RuntimeException e) {
+                fail(onFailure, group, e);
+            }
+        }
+        if (!created.isEmpty()) {
+            List<Watch> saved;
+            try {
+                saved = metrics.uncheckedStage("persist", () -> watchService.saveAll(created));
+            } catch (RuntimeException e) {
+                for (int g : createdGroups) {
+                    fail(onFailure, groups.get(g), e);
+                }
+                return Arrays.asList(result);
+            }
+            for (int i = 0; i < saved.size(); i++) {
+                int g = createdGroups.get(i);
+                Watch watch = saved.get(i);
+                logger.info("Created watch id={}: brand={}, model={}, year={}, images={}",
+                        watch.getId(), watch.getBrand(), watch.getModel(), watch.getYear(),
+                        groups.get(g).imagePaths.size());
+                result[g] = watch;
+                addToIndex(watchIndex, groups.get(g), watch);
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    private static void fail(BiConsumer<ImageGroup, RuntimeException> onFailure, ImageGroup group, RuntimeException e) {
+        if (onFailure == null) {
+            throw e;
+        }
+        onFailure.accept(group, e);
+    }
+
+    private static void addToIndex(WatchFeatureIndex watchIndex, ImageGroup group, Watch watch) {
+        if (watchIndex == null) {
+            return;
+        }
+        for (float[] feature : group.features) {
+            watchIndex.add(feature, watch.getId());
+        }
+    }
+
+    /**
+     * Find the first existing watch within the epsilon radius of any of the
+     * given features and attach the images to it.  Watches deleted since
+     * they were indexed are skipped.
+     */
+    private Optional<Watch> findMatch(WatchFeatureIndex watchIndex, List<float[]> features, double eps,
+                                      List<String> imagePaths) {
+        for (float[] feature : features) {
+            for (long watchId : watchIndex.matches(feature, eps)) {
+                Optional<Watch> attached = watchService.attachImages(watchId, imagePaths);
+                if (attached.isPresent()) {
+                    return attached;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The index, starting a build on the I/O executor if none has been
+     * started or the last one failed.
+     */
+    private CompletableFuture<WatchFeatureIndex> index() {
+        synchronized (buildLock) {
+            if (index == null || index.isCompletedExceptionally()) {
+                index = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return buildIndex();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, ioExecutor);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Wait for the index build to finish.
+     */
+    private WatchFeatureIndex awaitIndex() throws IOException {
+        try {
+            return index().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while indexing existing images");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Failed to index existing images", cause);
+        }
+    }
+
+    /**
+     * Build the index from the images already attached to watches.
+     */
+    private WatchFeatureIndex buildIndex() throws IOException {
+        WatchFeatureIndex built = new WatchFeatureIndex(neighbourSearchMode, clusteringService.getEps(),
+                clusteringService.getFeatureDimension());
+        List<File> files = new ArrayList<>();
+        List<Long> owners = new ArrayList<>();
+        for (Map.Entry<Long, List<String>> entry : watchService.getImageUrlsByWatch().entrySet()) {
+            for (String url : entry.getValue()) {
+                Path path = Paths.get(url);
+                if (Files.isRegularFile(path)) {
+                    files.add(path.toFile());
+                    owners.add(entry.getKey());
+                }
+            }
+        }
+        FeatureMatrix features = clusteringService.extractFeatures(files);
+        for (int i = 0; i < features.size(); i++) {
+            built.add(features.row(i), owners.get(i));
+        }
+        logger.info("Indexed {} existing image(s) for incremental clustering", built.size());
+        return built;
+    }
+}
@@ -0,0 +1,162 @@
+package com.mywatchcollectionhub.service;
+
+import com.mywatchcollectionhub.model.IngestionJob;
+import com.mywatchcollectionhub.model.IngestionStage;
+import com.mywatchcollectionhub.service.clustering.ClusteringParameters;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs image ingestion asynchronously on a bounded worker pool.
+ *
+ * <p>
+ * Submitting a job stores the uploaded images on the calling (request)
+ * thread, because multipart content does not outlive the request, and then
+ * queues the clustering, recognition, enrichment and persistence steps.
+ * Admission is limited to the number of workers plus the queue capacity;
+ * further submissions are rejected until a job finishes.  Finished jobs are
+ * kept for polling for a configurable retention period.  The number of jobs
+ * waiting for a worker and the number admitted but not yet finished are
+ * published as the {@code ingestion.jobs.queued} and
+ * {@code ingestion.jobs.in.flight} gauges.
+ */
+@Service
+public class IngestionJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionJobService.class);
+
+    /** Number of jobs processed concurrently. */
+    @Value("${ingestion.jobs.workers:2}")
+    private int workers;
+
+    /** Number of accepted jobs allowed to wait for a worker. */
+    @Value("${ingestion.jobs.queue-capacity:8}")
+    private int queueCapacity;
+
+    /** How long finished jobs remain available for polling. */
+    @Value("${ingestion.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final ImageIngestionService ingestionService;
+    private final MeterRegistry registry;
+    private final Map<String, IngestionJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+    private Semaphore admissions;
+
+    @Autowired
+    public IngestionJobService(ImageIngestionService ingestionService, MeterRegistry registry) {
+        this.ingestionService = ingestionService;
+        this.registry = registry;
+    }
+
+    /**
+     * Create the worker pool and register the queue gauges.
+     */
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "ingestion-job-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        admissions = new Semaphore(workers + queueCapacity);
+        Gauge.builder("ingestion.jobs.queued", executor, pool -> pool.getQueue().size())
+                .description("Ingestion jobs waiting for a worker")
+                .register(registry);
+        Gauge.builder("ingestion.jobs.in.flight", admissions,
+                        permits -> workers + queueCapacity - permits.availablePermits())
+                .description("Ingestion jobs queued or running")
+                .register(registry);
+    }
+
+    /**
+     * Store the uploaded images and queue the rest of the ingestion.
+     *
+     * @param files      uploaded image files
+     * @param parameters clustering parameters overriding the configuration
+     * @return the queued job
+     * @throws RejectedExecutionException if the maximum number of jobs is
+     *                                    already running or queued
+     * @throws IOException                if storing the images fails
+     */
+    public IngestionJob submit(MultipartFile[] files, ClusteringParameters parameters) throws IOException {
+        evictExpired();
+        if (!admissions.tryAcquire()) {
+            throw new RejectedExecutionException("Too many ingestion jobs in progress");
+        }
+        IngestionJob job = new IngestionJob();
+        List<StoredImage> stored;
+        try {
+            stored = ingestionService.saveImages(files);
+        } catch (IOException | RuntimeException e) {
+            admissions.release();
+            throw e;
+        }
+        job.setTotalImages(stored.size());
+        job.setStage(IngestionStage.QUEUED);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> {
+            try {
+                ingestionService.ingestStoredImages(stored, job, parameters);
+                job.setStage(IngestionStage.COMPLETED);
+            } catch (Exception e) {
+                logger.error("Ingestion job {} failed", job.getId(), e);
+                job.itemFailed(e.toString());
+                job.setStage(IngestionStage.FAILED);
+            } finally {
+                admissions.release();
+            }
+        });
+        logger.info("Queued ingestion job {} with {} image(s)", job.getId(), stored.size());
+        return job;
+    }
+
+    /**
+     * Look up a job by id.
+     *
+     * @param id job id
+     * @return the job, or empty if unknown or expired
+     */
+    public Optional<IngestionJob> get(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Stop the worker pool when the application context closes.  Running
+     * jobs are interrupted.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,120 @@
+package com.mywatchcollectionhub.service;
+
+import com.mywatchcollectionhub.service.clustering.ClusteringResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Meters and observations of the ingestion pipeline.
+ *
+ * <p>
+ * Each stage of an ingest runs inside an {@code ingestion.stage}
+ * observation tagged with the stage name: {@code save}, {@code extract},
+ * {@code cluster}, {@code recognise}, {@code enrich} and {@code persist}.
+ * Spring Boot turns every observation into a timer of the same name (with a
+ * histogram when enabled in the configuration) and, when a tracing bridge is
+ * present, into a span nested under the surrounding request.  Volume is
+ * counted separately: images, clusters, noise points and bytes written to
+ * storage.  The epsilon radius each batch was clustered with is recorded in
+ * the {@code ingestion.clustering.eps} summary, tagged with whether it was
+ * estimated.  Job queue gauges are registered by {@link IngestionJobService}.
+ */
+@Service
+public class IngestionMetrics {
+
+    /** Name of the per‑stage observation and of the timer derived from it. */
+    public static final String STAGE_OBSERVATION = "ingestion.stage";
+
+    /** Work done within a stage. */
+    @FunctionalInterface
+    public interface StageWork<T> {
+        T run() throws IOException;
+    }
+
+    private final MeterRegistry registry;
+    private final ObservationRegistry observations;
+    private final Counter images;
+    private final Counter duplicateImages;
+    private final Counter clusters;
+    private final Counter noisePoints;
+    private final Counter bytesWritten;
+
+    @Autowired
+    public IngestionMetrics(MeterRegistry registry, ObservationRegistry observations) {
+        this.registry = registry;
+        this.observations = observations;
+        this.images = Counter.builder("ingestion.images")
+                .description("Images stored for ingestion")
+                .register(registry);
+        this.duplicateImages = Counter.builder("ingestion.images.duplicate")
+                .description("Stored images skipped because their content is already catalogued")
+                .register(registry);
+        this.clusters = Counter.builder("ingestion.clusters")
+                .description("Clusters found in ingested batches")
+                .register(registry);
+        this.noisePoints = Counter.builder("ingestion.noise.points")
+                .description("Images DBSCAN left unclustered")
+                .register(registry);
+        this.bytesWritten = Counter.builder("ingestion.bytes.written")
+                .baseUnit("bytes")
+                .description("Image bytes written to storage")
+                .register(registry);
+    }
+
+    /**
+     * Run one stage of the pipeline inside an observation.
+     *
+     * @param stage stage name, used as the {@code stage} tag
+     * @param work  the stage
+     * @return the stage's result
+     * @throws IOException if the stage fails
+     */
+    public <T> T stage(String stage, StageWork<T> work) throws IOException {
+        return Observation.createNotStarted(STAGE_OBSERVATION, observations)
+                .lowCardinalityKeyValue("stage", stage)
+                .observeChecked(work::run);
+    }
+
+    /**
+     * Run one stage that does no I/O inside an observation.
+     *
+     * @param stage stage name, used as the {@code stage} tag
+     * @param work  the stage
+     * @return the stage's result
+     */
+    public <T> T uncheckedStage(String stage, Supplier<T> work) {
+        return Observation.createNotStarted(STAGE_OBSERVATION, observations)
+                .lowCardinalityKeyValue("stage", stage)
+                .observe(work);
+    }
+
+    public void imagesStored(int count, long bytes) {
+        images.increment(count);
+        bytesWritten.increment(bytes);
+    }
+
+    public void duplicatesSkipped(int count) {
+        duplicateImages.increment(count);
+    }
+
+    public void clustered(int clusterCount, int noiseCount) {
+        clusters.increment(clusterCount);
+        noisePoints.increment(noiseCount);
+    }
+
+    public void clusteringParameters(ClusteringResult result) {
+        DistributionSummary.builder("ingestion.clustering.eps")
+                .description("Epsilon radius ingested batches were clustered with")
+                .tag("estimated", Boolean.toString(result.isEpsEstimated()))
+                .register(registry)
+                .record(result.getEps());
+    }
+}
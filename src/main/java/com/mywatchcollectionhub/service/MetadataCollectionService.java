@@ -1,18 +1,137 @@
 package com.mywatchcollectionhub.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mywatchcollectionhub.config.ExecutionConfig;
+import com.mywatchcollectionhub.service.metadata.MetadataProvider;
+import com.mywatchcollectionhub.service.metadata.RateLimiter;
+import com.mywatchcollectionhub.service.metadata.WatchDetails;
+import com.mywatchcollectionhub.service.metadata.WatchKey;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
- * Placeholder service for enriching watch data with additional metadata.
+ * Enriches watch records with metadata such as descriptions and resale
+ * values from the configured {@link MetadataProvider}s.
+ *
+ * <p>
+ * Lookups are made a batch at a time with {@link #enrich(Collection)}.
+ * Requests for the same brand, model and year are merged, both within a
+ * batch and with lookups already in flight, so ingesting 500 photos of one
+ * watch costs a single lookup.  Distinct watches are looked up concurrently
+ * on the shared I/O executor.  For each watch the providers are asked in
+ * order, directly on the lookup's own task, until one knows it; every
+ * provider has its own rate limit and a lookup still running after the
+ * lookup timeout is abandoned.
  *
  * <p>
- * This class would, in a full implementation, call out to external APIs
- * such as watch databases, eBay, Chrono24 or WatchCharts to fetch details
- * like historical pricing, production years and descriptions for a given
- * watch model.  Currently it contains stub methods to be completed later.
+ * Results, including "not found", are cached with a time to live and a size
+ * bound.  A lookup that timed out, or in which some provider failed, is
+ * not cached, so it is retried by the next batch.
  */
 @Service
 public class MetadataCollectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetadataCollectionService.class);
+
+    /** Longest the lookup of one watch, across all providers, may take. */
+    @Value("${metadata.lookup.timeout-ms:5000}")
+    private long timeoutMillis = 5000;
+
+    /** How long a lookup result is reused. */
+    @Value("${metadata.cache.ttl-minutes:1440}")
+    private long cacheTtlMinutes = 1440;
+
+    /** Maximum number of cached lookup results. */
+    @Value("${metadata.cache.max-size:10000}")
+    private long cacheMaxSize = 10000;
+
+    private final List<MetadataProvider> providers;
+    private final List<RateLimiter> limiters;
+    private final ExecutorService ioExecutor;
+
+    private AsyncCache<WatchKey, WatchDetails> cache;
+
+    @Autowired
+    public MetadataCollectionService(List<MetadataProvider> providers,
+                                     @Qualifier(ExecutionConfig.IO_EXECUTOR) ExecutorService ioExecutor) {
+        this.providers = providers;
+        this.ioExecutor = ioExecutor;
+        this.limiters = new ArrayList<>(providers.size());
+        for (MetadataProvider provider : providers) {
+            limiters.add(new RateLimiter(provider.getMaxRequestsPerSecond()));
+        }
+    }
+
+    /**
+     * Create the result cache from the configured time to live and size.
+     */
+    @PostConstruct
+    public void start() {
+        cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .maximumSize(cacheMaxSize)
+                .buildAsync();
+    }
+
+    /**
+     * Look up metadata for a batch of watches.
+     *
+     * @param keys watches to look up; duplicates are looked up once
+     * @return details per distinct key, {@link WatchDetails#NONE} for
+     *         watches no provider knows or whose lookup failed
+     */
+    public Map<WatchKey, WatchDetails> enrich(Collection<WatchKey> keys) {
+        Map<WatchKey, CompletableFuture<WatchDetails>> pending = new LinkedHashMap<>();
+        for (WatchKey key : keys) {
+            if (key.getBrand() == null || pending.containsKey(key)) {
+                continue;
+            }
+            pending.put(key, cache.get(key, (k, executor) -> CompletableFuture
+                    .supplyAsync(() -> lookup(k), ioExecutor)
+                    .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)));
+        }
+        Map<WatchKey, WatchDetails> found = new HashMap<>();
+        for (WatchKey key : keys) {
+            found.put(key, WatchDetails.NONE);
+        }
+        for (Map.Entry<WatchKey, CompletableFuture<WatchDetails>> entry : pending.entrySet()) {
+            try {
+                found.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException | CancellationException e) {
+                if (e.getCause() instanceof TimeoutException) {
+                    logger.warn("Metadata lookup for {} timed out after {} ms", entry.getKey(), timeoutMillis);
+                } else {
+                    logger.warn("Metadata lookup for {} failed: {}", entry.getKey(),
+                            e.getCause() != null ? e.getCause().toString() : e.toString());
+                }
+            }
+        }
+        return found;
+    }
+
     /**
      * Enrich a watch record with metadata from external sources.
      *
@@ -21,8 +140,7 @@ public class MetadataCollectionService {
      * @return descriptive text about the watch or {@code null} if none found
      */
     public String fetchDescription(String brand, String model) {
-        // TODO: implement metadata lookup via external APIs
-        return null;
+        return lookupOne(new WatchKey(brand, model, null)).getDescription();
     }
 
     /**
@@ -34,7 +152,41 @@ public class MetadataCollectionService {
      * @return approximate current resale value
      */
     public Double estimateResaleValue(String brand, String model, Integer year) {
-        // TODO: implement pricing lookup via watch marketplaces
-        return null;
+        return lookupOne(new WatchKey(brand, model, year)).getResaleValue();
+    }
+
+    private WatchDetails lookupOne(WatchKey key) {
+        return enrich(List.of(key)).get(key);
+    }
+
+    /**
+     * Ask each provider in turn.  Runs on the I/O executor.
+     *
+     * @throws CompletionException if nothing was found and a provider
+     *                             failed, or if the lookup was interrupted,
+     *                             so the result is not cached
+     */
+    private WatchDetails lookup(WatchKey key) {
+        Exception failure = null;
+        for (int i = 0; i < providers.size(); i++) {
+            MetadataProvider provider = providers.get(i);
+            try {
+                limiters.get(i).acquire();
+                Optional<WatchDetails> details = provider.lookup(key);
+                if (details.isPresent() && !details.get().isEmpty()) {
+                    return details.get();
+                }
+            } catch (InterruptedIOException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Metadata provider {} failed looking up {}: {}", provider.getName(), key, e.toString());
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw new CompletionException(failure);
+        }
+        return WatchDetails.NONE;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package com.mywatchcollectionhub.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Record of the image files already ingested from a directory, persisted as
+ * a small tab separated file.
+ *
+ * <p>
+ * Each line holds the size, modification time (epoch milliseconds) and
+ * SHA‑256 content hash of a file followed by its absolute path.  A file whose
+ * size and modification time match its entry is treated as unchanged without
+ * being read; one whose metadata changed is hashed and only treated as new if
+ * its content changed too.  The manifest is rewritten to a temporary file and
+ * moved into place, so an interrupted save leaves the previous version
+ * intact.
+ */
+public class ProcessedFileManifest {
+
+    /** Manifest entry for one processed file. */
+    public static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final String contentHash;
+
+        public Entry(long size, long lastModified, String contentHash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public ProcessedFileManifest(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Read the manifest from disk, replacing any entries held in memory.  A
+     * missing file yields an empty manifest; malformed lines are ignored.
+     *
+     * @throws IOException if the file exists but cannot be read
+     */
+    public synchronized void load() throws IOException {
+        entries.clear();
+        if (Files.notExists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", 4);
+                if (fields.length < 4) {
+                    continue;
+                }
+                try {
+                    entries.put(fields[3], new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2]));
+                } catch (NumberFormatException e) {
+                    // Skip lines that were not written by this class.
+                }
+            }
+        }
+    }
+
+    /**
+     * Look up the entry for a file.
+     *
+     * @param path processed file
+     * @return its entry, or {@code null} if the file has not been processed
+     */
+    public synchronized Entry get(Path path) {
+        return entries.get(key(path));
+    }
+
+    /**
+     * Record a file as processed.
+     *
+     * @param path  processed file
+     * @param entry its size, modification time and hash
+     */
+    public synchronized void put(Path path, Entry entry) {
+        entries.put(key(path), entry);
+    }
+
+    /**
+     * Number of files recorded.
+     *
+     * @return entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Write the manifest to disk.
+     *
+     * @throws IOException if the manifest cannot be written
+     */
+    public synchronized void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    Entry entry = e.getValue();
+                    writer.write(entry.size + "\t" + entry.lastModified + "\t" + entry.contentHash + "\t" + e.getKey());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String key(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.mywatchcollectionhub.service;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenisation shared by {@link WatchSearchIndex} and the search queries run
+ * against it.
+ *
+ * <p>
+ * Text is lower cased and split on anything that is not a letter or digit,
+ * so "Grand Seiko SBGA211" yields {@code grand}, {@code seiko} and
+ * {@code sbga211}.
+ */
+public final class SearchTerms {
+
+    private SearchTerms() {
+    }
+
+    /**
+     * Split text into distinct search terms.
+     *
+     * @param texts texts to tokenise; {@code null} entries are skipped
+     * @return terms in order of first occurrence
+     */
+    public static Set<String> tokens(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty()) {
+                    terms.add(token);
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Normalise a value for case insensitive prefix matching.
+     *
+     * @param text value, may be {@code null}
+     * @return lower cased value, or {@code null}
+     */
+    public static String key(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,44 +2,45 @@ package com.mywatchcollectionhub.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 /**
- * Simple implementation of {@link MultipartFile} backed by a byte array.
+ * Simple implementation of {@link MultipartFile} backed by a file on disk.
  *
  * <p>
  * This class is useful for converting regular {@link java.io.File} instances
  * into MultipartFile objects so they can be passed to existing methods that
  * expect multipart uploads (such as {@link ImageStorageService#saveImages}).
- * It is not intended for streaming large files and loads the entire file
- * content into memory.  Use with caution for very large files.
+ * Content is read from the file on demand, so wrapping a file does not load
+ * it into memory; only {@link #getBytes()} reads the whole file.  For bulk
+ * ingestion of files on disk prefer {@link ImageStorageService#saveFiles}.
  */
 public class SimpleMultipartFile implements MultipartFile {
 
     private final String name;
     private final String originalFilename;
     private final String contentType;
-    private final byte[] content;
+    private final Path path;
+    private final long size;
 
     /**
-     * Create a MultipartFile from the given file.  The file's bytes are
-     * eagerly loaded into memory.
+     * Create a MultipartFile from the given file.  Only the file's metadata
+     * is read.
      *
      * @param file the file to wrap
-     * @throws IOException if reading the file fails
+     * @throws IOException if reading the file's metadata fails
      */
     public SimpleMultipartFile(File file) throws IOException {
         this.name = file.getName();
         this.originalFilename = file.getName();
-        Path path = file.toPath();
+        this.path = file.toPath();
         this.contentType = Files.probeContentType(path);
-        this.content = Files.readAllBytes(path);
+        this.size = Files.size(path);
     }
 
     @Override
@@ -59,27 +60,26 @@ public class SimpleMultipartFile implements MultipartFile {
 
     @Override
     public boolean isEmpty() {
-        return content.length == 0;
+        return size == 0;
     }
 
     @Override
     public long getSize() {
-        return content.length;
+        return size;
     }
 
     @Override
-    public byte[] getBytes() {
-        return content;
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
     }
 
     @Override
-    public InputStream getInputStream() {
-        return new ByteArrayInputStream(content);
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
     }
 
     @Override
     public void transferTo(File dest) throws IOException, IllegalStateException {
-        Path target = dest.toPath();
-        Files.write(target, content);
+        Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package com.mywatchcollectionhub.service;
+
+/**
+ * Ways {@link ImageStorageService} can lay out stored images.  Selected via
+ * the {@code image.storage.layout} property.
+ */
+public enum StorageLayout {
+
+    /**
+     * Keep the uploaded file name, appending a timestamp on collision.
+     * Identical uploads are stored once per upload.
+     */
+    NAMED,
+
+    /**
+     * Name each file after the SHA‑256 hash of its content, fanned out over
+     * two levels of directories ({@code uploads/ab/cd/abcd….jpg}).  Identical
+     * content is stored once and every later upload of it refers to the
+     * existing file.
+     */
+    CONTENT_ADDRESSED
+}
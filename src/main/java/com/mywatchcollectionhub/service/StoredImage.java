@@ -0,0 +1,71 @@
+package com.mywatchcollectionhub.service;
+
+import java.io.File;
+
+/**
+ * An image held by {@link ImageStorageService}.
+ *
+ * <p>
+ * Besides the stored file this carries the path recorded in
+ * {@code Watch.imageUrls}, the SHA‑256 hash of the content when the store is
+ * content addressed or the caller already knew it, and whether identical
+ * content was already stored before, in which case nothing was written.  The original file name
+ * is kept because content‑addressed files are named after their hash, while
+ * recognition reads hints from the name the image was uploaded with.
+ */
+public class StoredImage {
+    private final File file;
+    private final String originalName;
+    private final String url;
+    private final String contentHash;
+    private final boolean duplicate;
+
+    public StoredImage(File file, String originalName, String url, String contentHash, boolean duplicate) {
+        this.file = file;
+        this.originalName = originalName;
+        this.url = url;
+        this.contentHash = contentHash;
+        this.duplicate = duplicate;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * File name the image was uploaded or ingested with.
+     *
+     * @return original file name
+     */
+    public String getOriginalName() {
+        return originalName;
+    }
+
+    /**
+     * Path of the image relative to the working directory, as stored in
+     * {@code Watch.imageUrls}.
+     *
+     * @return relative image path
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * SHA‑256 hash of the content, if known.
+     *
+     * @return hexadecimal content hash, or {@code null}
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Whether identical content was already in the store.
+     *
+     * @return {@code true} if the write was skipped
+     */
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+}
@@ -0,0 +1,79 @@
+package com.mywatchcollectionhub.service;
+
+import com.mywatchcollectionhub.repository.WatchSortField;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the watch listing.
+ *
+ * <p>
+ * A cursor records the sort it was issued for and the sort value and id of
+ * the last row of a page, encoded as URL safe Base64 so clients treat it as
+ * a token rather than something to construct.
+ */
+final class WatchCursor {
+    private final WatchSortField sort;
+    private final boolean ascending;
+    private final Object value;
+    private final long id;
+
+    WatchCursor(WatchSortField sort, boolean ascending, Object value, long id) {
+        this.sort = sort;
+        this.ascending = ascending;
+        this.value = value;
+        this.id = id;
+    }
+
+    WatchSortField getSort() {
+        return sort;
+    }
+
+    boolean isAscending() {
+        return ascending;
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Render the cursor as a token.
+     *
+     * @return URL safe token
+     */
+    String encode() {
+        // The value goes last because strings may contain the separator.
+        String text = sort.name() + "|" + (ascending ? "a" : "d") + "|" + id + "|"
+                + (value == null ? "-" : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token produced by {@link #encode()}.
+     *
+     * @param token cursor token
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static WatchCursor decode(String token) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = text.split("\\|", 4);
+            if (parts.length != 4 || !(parts[1].equals("a") || parts[1].equals("d"))) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            WatchSortField sort = WatchSortField.valueOf(parts[0]);
+            Object value = parts[3].equals("-") ? null : sort.parse(parts[3].substring(1));
+            return new WatchCursor(sort, parts[1].equals("a"), value, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            // Covers bad Base64, unknown sort fields and unparsable numbers.
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
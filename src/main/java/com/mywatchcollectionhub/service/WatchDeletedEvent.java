@@ -0,0 +1,23 @@
+package com.mywatchcollectionhub.service;
+
+/**
+ * Published by {@link WatchService} when a watch has been deleted, so that
+ * in‑memory structures holding its id can drop it.
+ */
+public class WatchDeletedEvent {
+
+    private final long watchId;
+
+    public WatchDeletedEvent(long watchId) {
+        this.watchId = watchId;
+    }
+
+    /**
+     * Id of the deleted watch.
+     *
+     * @return watch id
+     */
+    public long getWatchId() {
+        return watchId;
+    }
+}
@@ -0,0 +1,104 @@
+package com.mywatchcollectionhub.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search criteria for the watch listing.  Every criterion is optional and
+ * all given criteria must match.
+ */
+public class WatchFilter {
+    private List<String> terms = new ArrayList<>();
+    private String brandPrefix;
+    private String modelPrefix;
+    private List<String> tags = new ArrayList<>();
+    private Integer minYear;
+    private Integer maxYear;
+    private Double minValue;
+    private Double maxValue;
+
+    /**
+     * Lower cased search terms; each must be a prefix of a term of the
+     * watch's brand, model or description.
+     *
+     * @return search terms
+     */
+    public List<String> getTerms() {
+        return terms;
+    }
+
+    public void setTerms(List<String> terms) {
+        this.terms = terms;
+    }
+
+    /**
+     * Lower cased prefix of the brand.
+     *
+     * @return brand prefix, or {@code null}
+     */
+    public String getBrandPrefix() {
+        return brandPrefix;
+    }
+
+    public void setBrandPrefix(String brandPrefix) {
+        this.brandPrefix = brandPrefix;
+    }
+
+    /**
+     * Lower cased prefix of the model.
+     *
+     * @return model prefix, or {@code null}
+     */
+    public String getModelPrefix() {
+        return modelPrefix;
+    }
+
+    public void setModelPrefix(String modelPrefix) {
+        this.modelPrefix = modelPrefix;
+    }
+
+    /**
+     * Tags the watch must all carry, matched exactly.
+     *
+     * @return required tags
+     */
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public Integer getMinYear() {
+        return minYear;
+    }
+
+    public void setMinYear(Integer minYear) {
+        this.minYear = minYear;
+    }
+
+    public Integer getMaxYear() {
+        return maxYear;
+    }
+
+    public void setMaxYear(Integer maxYear) {
+        this.maxYear = maxYear;
+    }
+
+    public Double getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(Double minValue) {
+        this.minValue = minValue;
+    }
+
+    public Double getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(Double maxValue) {
+        this.maxValue = maxValue;
+    }
+}
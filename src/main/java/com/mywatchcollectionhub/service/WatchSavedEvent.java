@@ -0,0 +1,37 @@
+package com.mywatchcollectionhub.service;
+
+import java.util.List;
+
+/**
+ * Published by {@link WatchService} when a single watch has been created or
+ * updated through {@link WatchService#save}, so that in‑memory structures
+ * derived from its images can refresh them.
+ */
+public class WatchSavedEvent {
+
+    private final long watchId;
+    private final List<String> imageUrls;
+
+    public WatchSavedEvent(long watchId, List<String> imageUrls) {
+        this.watchId = watchId;
+        this.imageUrls = imageUrls;
+    }
+
+    /**
+     * Id of the saved watch.
+     *
+     * @return watch id
+     */
+    public long getWatchId() {
+        return watchId;
+    }
+
+    /**
+     * Image paths of the watch as saved.
+     *
+     * @return stored image paths
+     */
+    public List<String> getImageUrls() {
+        return imageUrls;
+    }
+}
@@ -0,0 +1,420 @@
+package com.mywatchcollectionhub.service;
+
+import com.mywatchcollectionhub.model.Watch;
+import com.mywatchcollectionhub.repository.WatchRepository;
+import com.mywatchcollectionhub.repository.WatchSortField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * In‑process inverted index answering watch searches.
+ *
+ * <p>
+ * Prefix searches over free text cannot use an ordinary database index once
+ * a term matches a sizeable part of the collection, so the searchable fields
+ * of every watch are mirrored here.  Each watch is given a dense document
+ * number; the {@link SearchTerms} of brand, model and description, the lower
+ * cased brand and model and the tags each map to a sorted posting list of
+ * document numbers.  A search ORs the posting lists of every key under a
+ * prefix into a bit set, ANDs the criteria together, applies the year and
+ * value ranges to the surviving documents and selects the requested page
+ * with a bounded heap, so neither the collection nor the matches are ever
+ * sorted in full.  The caller then loads just that page from the database.
+ *
+ * <p>
+ * The index is built from the database on first use (two queries that load
+ * no entities) and kept current by {@link WatchService} after every
+ * committed save and delete.  It only sees writes made through this process.
+ */
+@Service
+public class WatchSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchSearchIndex.class);
+
+    /** Result of a search: one page of ids plus the total number of matches. */
+    public static final class Result {
+        private final List<Long> ids;
+        private final int total;
+
+        Result(List<Long> ids, int total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        /**
+         * Ids of the page in sort order.
+         *
+         * @return watch ids
+         */
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        /**
+         * Number of watches matching the criteria.
+         *
+         * @return match count
+         */
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    private final WatchRepository watchRepository;
+
+    private boolean built;
+    private final Map<Long, Integer> docById = new HashMap<>();
+    private long[] ids = new long[16];
+    private String[] brands = new String[16];
+    private String[] models = new String[16];
+    private Integer[] years = new Integer[16];
+    private Double[] values = new Double[16];
+    private int docCount;
+    private final BitSet live = new BitSet();
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final NavigableMap<String, Postings> brandKeys = new TreeMap<>();
+    private final NavigableMap<String, Postings> modelKeys = new TreeMap<>();
+    private final Map<String, Postings> tags = new HashMap<>();
+    /** Keys each document was posted under, so updates can unpost them. */
+    private Object[][] postedKeys = new Object[16][];
+
+    @Autowired
+    public WatchSearchIndex(WatchRepository watchRepository) {
+        this.watchRepository = watchRepository;
+    }
+
+    /**
+     * Find one page of watches matching a filter.
+     *
+     * @param filter     search criteria, or {@code null} for all watches
+     * @param sort       field to order by; nulls sort first ascending and
+     *                   last descending, ties are broken by id
+     * @param ascending  sort direction
+     * @param afterValue sort value of the last row of the previous page
+     * @param afterId    id of the last row of the previous page, or
+     *                   {@code null} for offset paging
+     * @param offset     rows to skip when not keyset paging
+     * @param limit      maximum number of ids returned
+     * @return the page of ids and the total number of matches
+     */
+    public synchronized Result search(WatchFilter filter, WatchSortField sort, boolean ascending,
+                                      Object afterValue, Long afterId, int offset, int limit) {
+        ensureBuilt();
+        BitSet match = match(filter);
+        int total = match.cardinality();
+        Comparator<Integer> order = order(sort, ascending);
+        int skip = afterId != null ? 0 : offset;
+        int keep = skip + limit;
+        if (keep <= 0) {
+            return new Result(new ArrayList<>(), total);
+        }
+        // Keep the first `keep` documents in a max-heap on the sort order.
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(keep, Math.max(1, total)) + 1, order.reversed());
+        for (int doc = match.nextSetBit(0); doc >= 0; doc = match.nextSetBit(doc + 1)) {
+            if (afterId != null && compareToKey(sort, ascending, doc, afterValue, afterId) <= 0) {
+                continue;
+            }
+            if (heap.size() < keep) {
+                heap.add(doc);
+            } else if (order.compare(doc, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(doc);
+            }
+        }
+        Integer[] page = heap.toArray(new Integer[0]);
+        Arrays.sort(page, order);
+        List<Long> result = new ArrayList<>(Math.max(0, page.length - skip));
+        for (int i = skip; i < page.length; i++) {
+            result.add(ids[page[i]]);
+        }
+        return new Result(result, total);
+    }
+
+    /**
+     * Add or refresh the entry of a saved watch.
+     *
+     * @param watch persisted watch
+     */
+    public synchronized void update(Watch watch) {
+        if (!built || watch.getId() == null) {
+            return;
+        }
+        put(watch.getId(), watch.getBrand(), watch.getModel(), watch.getDescription(),
+                watch.getYear(), watch.getResaleValue(), watch.getTags());
+    }
+
+    /**
+     * Drop a deleted watch.
+     *
+     * @param id watch id
+     */
+    public synchronized void remove(Long id) {
+        if (!built) {
+            return;
+        }
+        Integer doc = docById.remove(id);
+        if (doc != null) {
+            unpost(doc);
+            live.clear(doc);
+        }
+    }
+
+    /**
+     * Evaluate the criteria into the set of matching documents.
+     */
+    private BitSet match(WatchFilter filter) {
+        BitSet match = (BitSet) live.clone();
+        if (filter == null) {
+            return match;
+        }
+        for (String term : filter.getTerms()) {
+            match.and(prefix(terms, term));
+        }
+        if (filter.getBrandPrefix() != null) {
+            match.and(prefix(brandKeys, filter.getBrandPrefix()));
+        }
+        if (filter.getModelPrefix() != null) {
+            match.and(prefix(modelKeys, filter.getModelPrefix()));
+        }
+        for (String tag : filter.getTags()) {
+            Postings postings = tags.get(tag);
+            if (postings == null) {
+                match.clear();
+                return match;
+            }
+            match.and(postings.toBitSet());
+        }
+        Integer minYear = filter.getMinYear();
+        Integer maxYear = filter.getMaxYear();
+        Double minValue = filter.getMinValue();
+        Double maxValue = filter.getMaxValue();
+        if (minYear != null || maxYear != null || minValue != null || maxValue != null) {
+            for (int doc = match.nextSetBit(0); doc >= 0; doc = match.nextSetBit(doc + 1)) {
+                Integer year = years[doc];
+                Double value = values[doc];
+                boolean inRange = (minYear == null || (year != null && year >= minYear))
+                        && (maxYear == null || (year != null && year <= maxYear))
+                        && (minValue == null || (value != null && value >= minValue))
+                        && (maxValue == null || (value != null && value <= maxValue));
+                if (!inRange) {
+                    match.clear(doc);
+                }
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Union of the posting lists of every key starting with the prefix.
+     */
+    private static BitSet prefix(NavigableMap<String, Postings> index, String prefix) {
+        BitSet union = new BitSet();
+        for (Postings postings : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            postings.orInto(union);
+        }
+        return union;
+    }
+
+    /**
+     * Document order for a sort, matching the order of the database listing:
+     * nulls first ascending and last descending, then by id.
+     */
+    private Comparator<Integer> order(WatchSortField sort, boolean ascending) {
+        Comparator<Integer> byId = (a, b) -> Long.compare(ids[a], ids[b]);
+        Comparator<Integer> order;
+        if (sort == WatchSortField.ID) {
+            order = byId;
+        } else {
+            order = (a, b) -> {
+                int c = compareValues(sortValue(sort, a), sortValue(sort, b));
+                return c != 0 ? c : byId.compare(a, b);
+            };
+        }
+        return ascending ? order : order.reversed();
+    }
+
+    /**
+     * Compare a document with a keyset position in the sort order.
+     *
+     * @return a positive number if the document comes after the position
+     */
+    private int compareToKey(WatchSortField sort, boolean ascending, int doc, Object value, long id) {
+        int c = sort == WatchSortField.ID ? 0 : compareValues(sortValue(sort, doc), value);
+        if (c == 0) {
+            c = Long.compare(ids[doc], id);
+        }
+        return ascending ? c : -c;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    private Object sortValue(WatchSortField sort, int doc) {
+        switch (sort) {
+            case BRAND:
+                return brands[doc];
+            case MODEL:
+                return models[doc];
+            case YEAR:
+                return years[doc];
+            case RESALE_VALUE:
+                return values[doc];
+            default:
+                return ids[doc];
+        }
+    }
+
+    /**
+     * Load the searchable fields of the whole collection.
+     */
+    private void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Long, List<String>> tagsById = new HashMap<>();
+        for (Object[] row : watchRepository.findAllTags()) {
+            tagsById.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+        for (Object[] row : watchRepository.findAllSearchFields()) {
+            Long id = (Long) row[0];
+            put(id, (String) row[1], (String) row[2], (String) row[3], (Integer) row[4], (Double) row[5],
+                    tagsById.get(id));
+        }
+        built = true;
+        logger.info("Built search index of {} watch(es) in {} ms", docById.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void put(long id, String brand, String model, String description,
+                     Integer year, Double value, Collection<String> watchTags) {
+        Integer existing = docById.get(id);
+        int doc;
+        if (existing != null) {
+            doc = existing;
+            unpost(doc);
+        } else {
+            doc = docCount++;
+            if (doc == ids.length) {
+                int capacity = doc * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                brands = Arrays.copyOf(brands, capacity);
+                models = Arrays.copyOf(models, capacity);
+                years = Arrays.copyOf(years, capacity);
+                values = Arrays.copyOf(values, capacity);
+                postedKeys = Arrays.copyOf(postedKeys, capacity);
+            }
+            docById.put(id, doc);
+            live.set(doc);
+        }
+        ids[doc] = id;
+        brands[doc] = brand;
+        models[doc] = model;
+        years[doc] = year;
+        values[doc] = value;
+
+        List<Object> keys = new ArrayList<>();
+        for (String term : SearchTerms.tokens(brand, model, description)) {
+            keys.add(post(terms, term, doc));
+        }
+        if (brand != null) {
+            keys.add(post(brandKeys, SearchTerms.key(brand), doc));
+        }
+        if (model != null) {
+            keys.add(post(modelKeys, SearchTerms.key(model), doc));
+        }
+        if (watchTags != null) {
+            for (String tag : watchTags) {
+                if (tag != null) {
+                    keys.add(post(tags, tag, doc));
+                }
+            }
+        }
+        postedKeys[doc] = keys.toArray();
+    }
+
+    private static Postings post(Map<String, Postings> index, String key, int doc) {
+        Postings postings = index.computeIfAbsent(key, k -> new Postings());
+        postings.add(doc);
+        return postings;
+    }
+
+    /**
+     * Remove a document from every posting list it was added to.  Empty
+     * lists are left in place; they cost a few bytes and are reused when the
+     * key reappears.
+     */
+    private void unpost(int doc) {
+        Object[] keys = postedKeys[doc];
+        if (keys != null) {
+            for (Object postings : keys) {
+                ((Postings) postings).remove(doc);
+            }
+            postedKeys[doc] = null;
+        }
+    }
+
+    /**
+     * Sorted, duplicate free list of document numbers.  Kept as a plain int
+     * array rather than a bit set, because most keys (model numbers, rare
+     * words) occur in a handful of documents.
+     */
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int size;
+
+        void add(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+            docs[pos] = doc;
+            size++;
+        }
+
+        void remove(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos >= 0) {
+                System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+                size--;
+            }
+        }
+
+        void orInto(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(docs[i]);
+            }
+        }
+
+        BitSet toBitSet() {
+            BitSet bits = new BitSet();
+            orInto(bits);
+            return bits;
+        }
+    }
+}
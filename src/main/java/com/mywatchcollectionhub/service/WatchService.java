@@ -1,33 +1,135 @@
 package com.mywatchcollectionhub.service;
 
 import com.mywatchcollectionhub.model.Watch;
+import com.mywatchcollectionhub.model.WatchSummary;
+import com.mywatchcollectionhub.model.WatchSummaryPage;
 import com.mywatchcollectionhub.repository.WatchRepository;
+import com.mywatchcollectionhub.repository.WatchSortField;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Service layer encapsulating business logic for managing watches.
+ *
+ * <p>
+ * Watch details and listing pages are served from the
+ * {@value #DETAIL_CACHE} and {@value #SUMMARY_CACHE} caches.  Every method
+ * that changes a watch evicts its detail entry and all listing pages, since
+ * any change can move a watch between pages.  Eviction waits for the
+ * transaction to commit, like the search index updates below, so that a
+ * read racing the change cannot cache the old state for the cache's
+ * lifetime.  Listing responses are tagged for HTTP revalidation by the
+ * {@link #getCollectionRevision() collection revision}.
+ *
+ * <p>
+ * Changes reach the in‑process {@link WatchSearchIndex} only once the
+ * transaction making them has committed, so a rolled back save or delete
+ * leaves the index as it was.
  */
 @Service
 public class WatchService {
+    /** Largest page the listing returns, whatever the client asks for. */
+    public static final int MAX_PAGE_SIZE = 100;
+    /** Cache of fully loaded watches keyed by id. */
+    public static final String DETAIL_CACHE = "watchDetail";
+    /** Cache of listing pages keyed by their request parameters. */
+    public static final String SUMMARY_CACHE = "watchSummaries";
+
     private final WatchRepository watchRepository;
+    private final WatchSearchIndex searchIndex;
+    private final ApplicationEventPublisher events;
+    private final CacheManager cacheManager;
 
     @Autowired
-    public WatchService(WatchRepository watchRepository) {
+    public WatchService(WatchRepository watchRepository, WatchSearchIndex searchIndex,
+                        ApplicationEventPublisher events, CacheManager cacheManager) {
         this.watchRepository = watchRepository;
+        this.searchIndex = searchIndex;
+        this.events = events;
+        this.cacheManager = cacheManager;
     }
 
     /**
-     * Persist a new watch record or update an existing one.
+     * Persist a new watch record or update an existing one, refresh its
+     * search index entry and publish a {@link WatchSavedEvent}.
      *
      * @param watch the watch to save
      * @return persisted watch
      */
+    @Transactional
     public Watch save(Watch watch) {
-        return watchRepository.save(watch);
+        Watch saved = watchRepository.save(watch);
+        evictAfterCommit(saved.getId());
+        afterCommit(() -> searchIndex.update(saved));
+        List<String> imageUrls = saved.getImageUrls() != null ? new ArrayList<>(saved.getImageUrls()) : List.of();
+        events.publishEvent(new WatchSavedEvent(saved.getId(), imageUrls));
+        return saved;
+    }
+
+    /**
+     * Persist several new or changed watches in one transaction and refresh
+     * their search index entries.
+     *
+     * <p>
+     * Watch ids come from a pooled sequence, so new watches are not inserted
+     * one by one as they are persisted.  Hibernate sends the inserts for the
+     * watches and for each collection table in JDBC batches when the
+     * transaction commits.
+     *
+     * @param watches the watches to save
+     * @return persisted watches, in the order given
+     */
+    @Transactional
+    public List<Watch> saveAll(List<Watch> watches) {
+        List<Watch> saved = watchRepository.saveAll(watches);
+        evictAfterCommit(null);
+        afterCommit(() -> {
+            for (Watch watch : saved) {
+                searchIndex.update(watch);
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Append image paths to an existing watch.  The watch is returned with
+     * all of its collections loaded so it can be serialised outside the
+     * transaction.
+     *
+     * @param id         the identifier of the watch
+     * @param imageUrls  image paths to append
+     * @return the updated watch, or empty if no watch has the given id
+     */
+    @Transactional
+    public Optional<Watch> attachImages(Long id, List<String> imageUrls) {
+        Optional<Watch> found = watchRepository.findById(id);
+        found.ifPresent(watch -> {
+            evictAfterCommit(id);
+            watch.getImageUrls().addAll(imageUrls);
+            // A change to a collection alone need not fire @PreUpdate.
+            watch.setUpdatedAt(Instant.now());
+            Hibernate.initialize(watch.getReferenceLinks());
+            Hibernate.initialize(watch.getTags());
+            // Flush so the returned watch carries its incremented version.
+            watchRepository.flush();
+        });
+        return found;
     }
 
     /**
@@ -40,6 +142,156 @@ public class WatchService {
         return watchRepository.findById(id);
     }
 
+    /**
+     * Retrieve a watch by id with all of its collections loaded, so it can
+     * be serialised outside the transaction.  Found watches are cached; the
+     * cached instance is shared and must not be modified.
+     *
+     * @param id the identifier of the watch
+     * @return optional containing the watch if found
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = DETAIL_CACHE, key = "#id", unless = "#result == null")
+    public Optional<Watch> getDetail(Long id) {
+        Optional<Watch> found = watchRepository.findById(id);
+        found.ifPresent(watch -> {
+            Hibernate.initialize(watch.getImageUrls());
+            Hibernate.initialize(watch.getReferenceLinks());
+            Hibernate.initialize(watch.getTags());
+        });
+        return found;
+    }
+
+    /**
+     * List one page of watch summaries.
+     *
+     * <p>
+     * Without a cursor the page is selected by offset and the response
+     * includes the total count.  With a cursor from a previous page the
+     * following rows are selected by keyset, which costs the same however
+     * deep the page is, and the count is skipped.  A cursor carries its own
+     * sort, so {@code sort} and {@code ascending} are ignored when one is
+     * given.
+     *
+     * @param sort      property to sort by, e.g. {@code brand}
+     * @param ascending sort direction
+     * @param page      zero based page number for offset paging
+     * @param size      page size, capped at {@link #MAX_PAGE_SIZE}
+     * @param cursor    cursor from a previous page, or {@code null}
+     * @return the page
+     * @throws IllegalArgumentException if the sort or cursor is invalid
+     */
+    @Cacheable(cacheNames = SUMMARY_CACHE, key = "{#sort, #ascending, #page, #size, #cursor}")
+    public WatchSummaryPage listSummaries(String sort, boolean ascending, int page, int size, String cursor) {
+        int limit = pageLimit(page, size);
+        WatchSortField field;
+        List<WatchSummary> rows;
+        Long total = null;
+        Integer pageNumber = null;
+        if (cursor != null) {
+            WatchCursor after = WatchCursor.decode(cursor);
+            field = after.getSort();
+            ascending = after.isAscending();
+            // One extra row tells whether another page follows.
+            rows = watchRepository.findSummaries(field, ascending, after.getValue(), after.getId(), 0, limit + 1);
+        } else {
+            field = WatchSortField.fromParameter(sort);
+            rows = watchRepository.findSummaries(field, ascending, null, null, page * limit, limit + 1);
+            total = watchRepository.count();
+            pageNumber = page;
+        }
+        return toPage(rows, field, ascending, limit, pageNumber, total);
+    }
+
+    /**
+     * Search for one page of summaries of the watches matching a filter.
+     *
+     * <p>
+     * Matching and ordering run against the {@link WatchSearchIndex}; only
+     * the selected page is then loaded from the database, in one query.
+     * Paging works as for {@link #listSummaries}, except that the total
+     * count is always reported because the index computes it anyway.  The
+     * filter must be repeated alongside a cursor.
+     *
+     * @param filter    search criteria
+     * @param sort      property to sort by, e.g. {@code brand}
+     * @param ascending sort direction
+     * @param page      zero based page number for offset paging
+     * @param size      page size, capped at {@link #MAX_PAGE_SIZE}
+     * @param cursor    cursor from a previous page, or {@code null}
+     * @return the page
+     * @throws IllegalArgumentException if the sort or cursor is invalid
+     */
+    public WatchSummaryPage searchSummaries(WatchFilter filter, String sort, boolean ascending,
+                                            int page, int size, String cursor) {
+        int limit = pageLimit(page, size);
+        WatchSortField field;
+        WatchSearchIndex.Result result;
+        Integer pageNumber = null;
+        if (cursor != null) {
+            WatchCursor after = WatchCursor.decode(cursor);
+            field = after.getSort();
+            ascending = after.isAscending();
+            result = searchIndex.search(filter, field, ascending, after.getValue(), after.getId(), 0, limit + 1);
+        } else {
+            field = WatchSortField.fromParameter(sort);
+            result = searchIndex.search(filter, field, ascending, null, null, page * limit, limit + 1);
+            pageNumber = page;
+        }
+        List<WatchSummary> rows = new ArrayList<>(result.getIds().size());
+        if (!result.getIds().isEmpty()) {
+            Map<Long, WatchSummary> byId = new HashMap<>();
+            for (WatchSummary summary : watchRepository.findSummariesByIds(result.getIds())) {
+                byId.put(summary.getId(), summary);
+            }
+            for (Long id : result.getIds()) {
+                WatchSummary summary = byId.get(id);
+                if (summary != null) {
+                    rows.add(summary);
+                }
+            }
+        }
+        return toPage(rows, field, ascending, limit, pageNumber, (long) result.getTotal());
+    }
+
+    private static int pageLimit(int page, int size) {
+        if (size < 1 || page < 0) {
+            throw new IllegalArgumentException("Page must be >= 0 and size >= 1");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Trim the extra look‑ahead row and derive the next cursor from the
+     * last row kept.
+     */
+    private static WatchSummaryPage toPage(List<WatchSummary> rows, WatchSortField field, boolean ascending,
+                                           int limit, Integer pageNumber, Long total) {
+        String next = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            WatchSummary last = rows.get(limit - 1);
+            next = new WatchCursor(field, ascending, field.valueOf(last), last.getId()).encode();
+        }
+        return new WatchSummaryPage(rows, limit, pageNumber, total, next);
+    }
+
+    /**
+     * Token identifying the current state of the whole collection: the
+     * number of watches and the time of the latest change to any of them.
+     * Saves, ingests and image attachments advance the time and deletions
+     * change the count, so listings and searches can use it as an entity
+     * tag.  It is read from the database, so it survives restarts and
+     * agrees between instances.
+     *
+     * @return opaque revision token
+     */
+    public String getCollectionRevision() {
+        Object[] row = watchRepository.findCollectionState().get(0);
+        Instant lastModified = (Instant) row[0];
+        return row[1] + "-" + (lastModified != null ? lastModified.toEpochMilli() : 0);
+    }
+
     /**
      * Retrieve all watches.
      *
@@ -50,11 +302,88 @@ public class WatchService {
     }
 
     /**
-     * Delete a watch by id.
+     * Number of watches in the collection.
+     *
+     * @return watch count
+     */
+    public long count() {
+        return watchRepository.count();
+    }
+
+    /**
+     * Retrieve the image paths of every watch without loading the watches
+     * themselves.
+     *
+     * @return image paths keyed by watch id
+     */
+    public Map<Long, List<String>> getImageUrlsByWatch() {
+        Map<Long, List<String>> result = new LinkedHashMap<>();
+        for (Object[] row : watchRepository.findAllImageUrls()) {
+            result.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+        return result;
+    }
+
+    /**
+     * Check whether an image path is already attached to any watch.
+     *
+     * @param imageUrl stored image path
+     * @return {@code true} if some watch refers to the image
+     */
+    public boolean isImageCatalogued(String imageUrl) {
+        return watchRepository.existsByImageUrl(imageUrl);
+    }
+
+    /**
+     * Delete a watch by id and publish a {@link WatchDeletedEvent}.
      *
      * @param id the identifier of the watch to delete
      */
     public void delete(Long id) {
         watchRepository.deleteById(id);
+        evictAfterCommit(id);
+        afterCommit(() -> searchIndex.remove(id));
+        events.publishEvent(new WatchDeletedEvent(id));
+    }
+
+    /**
+     * Evict a changed watch's detail entry, or every detail entry when
+     * {@code id} is {@code null}, and all listing pages once the change has
+     * committed.  Evicting earlier would let a concurrent read cache the
+     * state from before the change again.
+     */
+    private void evictAfterCommit(Long id) {
+        afterCommit(() -> {
+            Cache details = cacheManager.getCache(DETAIL_CACHE);
+            if (details != null) {
+                if (id != null) {
+                    details.evict(id);
+                } else {
+                    details.clear();
+                }
+            }
+            Cache summaries = cacheManager.getCache(SUMMARY_CACHE);
+            if (summaries != null) {
+                summaries.clear();
+            }
+        });
+    }
+
+    /**
+     * Run an action once the surrounding transaction has committed, or at
+     * once when there is none, e.g. after a repository call that committed
+     * its own transaction.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
\ No newline at end of file
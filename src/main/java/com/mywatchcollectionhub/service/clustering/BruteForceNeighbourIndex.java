@@ -0,0 +1,55 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Reference {@link NeighbourIndex} that compares the query point against
+ * every other point.  Each query costs O(n) distance computations, so a full
+ * clustering run is O(n²).  It is kept as the baseline the faster indices
+ * are validated against.
+ */
+public class BruteForceNeighbourIndex implements NeighbourIndex {
+
+    private final FeatureMatrix features;
+    private final int size;
+    private final float eps2;
+
+    public BruteForceNeighbourIndex(FeatureMatrix features, double eps) {
+        this.features = features;
+        this.size = features.size();
+        this.eps2 = (float) (eps * eps);
+    }
+
+    @Override
+    public int[] neighbours(int index) {
+        IntList result = new IntList();
+        neighbours(index, result);
+        return result.toArray();
+    }
+
+    @Override
+    public void neighbours(int index, IntList result) {
+        result.clear();
+        search(features.data(), features.offset(index), eps2, result);
+    }
+
+    @Override
+    public int[] neighboursOf(float[] query) {
+        IntList result = new IntList();
+        search(query, 0, eps2, result);
+        return result.toArray();
+    }
+
+    @Override
+    public int[] neighboursOf(float[] query, double radius) {
+        IntList result = new IntList();
+        search(query, 0, (float) (radius * radius), result);
+        return result.toArray();
+    }
+
+    private void search(float[] query, int queryOffset, float radius2, IntList result) {
+        for (int j = 0; j < size; j++) {
+            if (FeatureVectors.squaredDistance(query, queryOffset, features, j) <= radius2) {
+                result.add(j);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * DBSCAN parameters requested for one clustering run.  Parameters left
+ * unset fall back to the configured values of the clustering service.
+ */
+public final class ClusteringParameters {
+
+    /** Value of the {@code eps} request parameter asking for an estimate. */
+    public static final String AUTO = "auto";
+
+    /** Largest distance between two unit‑length feature vectors. */
+    private static final double MAX_EPS = Math.sqrt(2.0);
+
+    /** Use the configured parameters. */
+    public static final ClusteringParameters DEFAULTS = new ClusteringParameters(null, false, null);
+
+    private final Double eps;
+    private final boolean autoEps;
+    private final Integer minPts;
+
+    private ClusteringParameters(Double eps, boolean autoEps, Integer minPts) {
+        this.eps = eps;
+        this.autoEps = autoEps;
+        this.minPts = minPts;
+    }
+
+    /**
+     * Parse request parameters.
+     *
+     * @param eps    epsilon radius, {@value #AUTO} to estimate it from the
+     *               batch, or {@code null} for the configured behaviour
+     * @param minPts minimum neighbourhood size, or {@code null} for the
+     *               configured value
+     * @return the parameters
+     * @throws IllegalArgumentException if a value is malformed or out of
+     *                                  range
+     */
+    public static ClusteringParameters parse(String eps, Integer minPts) {
+        if (minPts != null && minPts < 1) {
+            throw new IllegalArgumentException("minPts must be at least 1: " + minPts);
+        }
+        if (eps == null || eps.isBlank()) {
+            return new ClusteringParameters(null, false, minPts);
+        }
+        if (AUTO.equalsIgnoreCase(eps.trim())) {
+            return new ClusteringParameters(null, true, minPts);
+        }
+        double value;
+        try {
+            value = Double.parseDouble(eps.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("eps must be a number or \"" + AUTO + "\": " + eps);
+        }
+        if (!(value > 0 && value <= MAX_EPS)) {
+            throw new IllegalArgumentException("eps must be greater than 0 and at most √2: " + eps);
+        }
+        return new ClusteringParameters(value, false, minPts);
+    }
+
+    /**
+     * Requested epsilon radius.
+     *
+     * @return the radius, or {@code null} if not given
+     */
+    public Double getEps() {
+        return eps;
+    }
+
+    /**
+     * Whether an estimated radius was requested.
+     *
+     * @return {@code true} if the radius should be estimated from the batch
+     */
+    public boolean isAutoEps() {
+        return autoEps;
+    }
+
+    /**
+     * Requested minimum neighbourhood size.
+     *
+     * @return the size, or {@code null} if not given
+     */
+    public Integer getMinPts() {
+        return minPts;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Cluster labels of one clustering run together with the DBSCAN parameters
+ * actually used, so callers can report an estimated radius.
+ */
+public final class ClusteringResult {
+
+    private final int[] labels;
+    private final double eps;
+    private final int minPts;
+    private final boolean epsEstimated;
+
+    public ClusteringResult(int[] labels, double eps, int minPts, boolean epsEstimated) {
+        this.labels = labels;
+        this.eps = eps;
+        this.minPts = minPts;
+        this.epsEstimated = epsEstimated;
+    }
+
+    /**
+     * Cluster id of each point, or -1 for noise.
+     *
+     * @return one label per point
+     */
+    public int[] getLabels() {
+        return labels;
+    }
+
+    public double getEps() {
+        return eps;
+    }
+
+    public int getMinPts() {
+        return minPts;
+    }
+
+    /**
+     * Whether the radius was estimated from the batch rather than given.
+     *
+     * @return {@code true} for an estimated radius
+     */
+    public boolean isEpsEstimated() {
+        return epsEstimated;
+    }
+}
@@ -0,0 +1,136 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Index based DBSCAN core working on primitive arrays only.
+ *
+ * <p>
+ * Points are identified by their position in the indexed feature set.
+ * Labels live in one {@code int[]}, the expansion frontier is an
+ * {@code int} ring buffer, and a bit set records every point that has been
+ * queued or queried.  A point therefore enters the frontier at most once
+ * per run, so the ring buffer never holds more than {@code n} entries, and
+ * neighbour queries fill a single reused {@link IntList}.  Apart from the
+ * index's own work a run allocates only these arrays, whatever the number
+ * of neighbours.
+ *
+ * <p>
+ * Border points keep the first label they receive, and a point labelled
+ * noise when it was visited stays noise even if a later cluster reaches
+ * it, as in the original list based implementation.
+ */
+public final class Dbscan {
+
+    /** Label of noise points. */
+    public static final int NOISE = -1;
+
+    /** Label of points not yet reached by any cluster expansion. */
+    private static final int UNASSIGNED = Integer.MIN_VALUE;
+
+    private final NeighbourIndex index;
+    private final int size;
+    private final int[] weights;
+    private final int minPts;
+
+    private final int[] labels;
+    private final BitSet enqueued;
+    private final int[] queue;
+    private final IntList neighbours = new IntList();
+    private int head;
+    private int count;
+
+    /**
+     * Prepare a run.
+     *
+     * @param index   neighbour index over the points
+     * @param size    number of points
+     * @param weights multiplicity of each point when testing for core
+     *                points, or {@code null} for one each
+     * @param minPts  minimum weight of a core point's neighbourhood
+     */
+    public Dbscan(NeighbourIndex index, int size, int[] weights, int minPts) {
+        this.index = index;
+        this.size = size;
+        this.weights = weights;
+        this.minPts = minPts;
+        this.labels = new int[size];
+        this.enqueued = new BitSet(size);
+        this.queue = new int[Math.max(size, 1)];
+    }
+
+    /**
+     * Cluster the points.
+     *
+     * @return the cluster id of each point, numbered from 0 in order of
+     *         discovery, or {@link #NOISE}
+     */
+    public int[] run() {
+        Arrays.fill(labels, UNASSIGNED);
+        int clusterId = 0;
+        for (int i = 0; i < size; i++) {
+            if (enqueued.get(i)) {
+                continue;
+            }
+            enqueued.set(i);
+            index.neighbours(i, neighbours);
+            if (weight() < minPts) {
+                labels[i] = NOISE;
+            } else {
+                labels[i] = clusterId;
+                expand(clusterId);
+                clusterId++;
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Grow a cluster from the core point whose neighbours were just queried.
+     */
+    private void expand(int clusterId) {
+        offerNeighbours();
+        while (count > 0) {
+            int current = queue[head];
+            head = head + 1 == queue.length ? 0 : head + 1;
+            count--;
+            index.neighbours(current, neighbours);
+            if (weight() >= minPts) {
+                offerNeighbours();
+            }
+            if (labels[current] == UNASSIGNED) {
+                labels[current] = clusterId;
+            }
+        }
+    }
+
+    /**
+     * Queue the neighbours that have been neither queued nor queried yet.
+     */
+    private void offerNeighbours() {
+        for (int k = 0; k < neighbours.size(); k++) {
+            int point = neighbours.get(k);
+            if (!enqueued.get(point)) {
+                enqueued.set(point);
+                int tail = head + count;
+                queue[tail < queue.length ? tail : tail - queue.length] = point;
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Number of points the current neighbourhood stands for.
+     */
+    private int weight() {
+        if (weights == null) {
+            return neighbours.size();
+        }
+        int total = 0;
+        for (int k = 0; k < neighbours.size(); k++) {
+            total += weights[neighbours.get(k)];
+        }
+        return total;
+    }
+}
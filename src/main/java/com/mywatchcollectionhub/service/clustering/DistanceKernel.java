@@ -0,0 +1,25 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Computes squared Euclidean distances between rows of flat float arrays.
+ *
+ * <p>
+ * Callers compare the result against the squared epsilon radius, so no
+ * square root is taken on the hot path.  Implementations are stateless and
+ * safe to share between threads.
+ */
+public interface DistanceKernel {
+
+    /**
+     * Compute the squared Euclidean distance between two vectors stored in
+     * (possibly the same) flat arrays.
+     *
+     * @param a       array holding the first vector
+     * @param aOffset index of the first vector's first component
+     * @param b       array holding the second vector
+     * @param bOffset index of the second vector's first component
+     * @param length  number of components
+     * @return the squared distance
+     */
+    float squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length);
+}
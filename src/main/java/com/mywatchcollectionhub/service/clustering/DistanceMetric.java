@@ -0,0 +1,66 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Distance between feature vectors, as declared by a {@link FeatureExtractor}.
+ *
+ * <p>
+ * The neighbour indices only compute Euclidean distances.  Each metric is
+ * therefore realised by normalising the raw, non‑negative output of an
+ * extractor so that the Euclidean distance between normalised vectors is
+ * the wanted distance.  Every normalised vector has unit length, so
+ * distances of all metrics lie between 0 and √2 and a single epsilon radius
+ * keeps the same meaning whichever extractor is selected.
+ */
+public enum DistanceMetric {
+
+    /**
+     * Euclidean distance between vectors scaled to unit length, which
+     * orders pairs exactly as their cosine similarity does.
+     */
+    EUCLIDEAN {
+        @Override
+        public void normalise(float[] vector, int length) {
+            double norm = 0.0;
+            for (int i = 0; i < length; i++) {
+                norm += (double) vector[i] * vector[i];
+            }
+            norm = Math.sqrt(norm);
+            if (norm > 0) {
+                for (int i = 0; i < length; i++) {
+                    vector[i] = (float) (vector[i] / norm);
+                }
+            }
+        }
+    },
+
+    /**
+     * Hellinger distance between histograms, scaled by √2: the Euclidean
+     * distance between the square roots of the histograms scaled to unit
+     * sum.  Less dominated by a few heavily populated bins than
+     * {@link #EUCLIDEAN}, which suits sparse colour histograms.
+     */
+    HELLINGER {
+        @Override
+        public void normalise(float[] vector, int length) {
+            double sum = 0.0;
+            for (int i = 0; i < length; i++) {
+                sum += vector[i];
+            }
+            if (sum > 0) {
+                for (int i = 0; i < length; i++) {
+                    vector[i] = (float) Math.sqrt(vector[i] / sum);
+                }
+            }
+        }
+    };
+
+    /**
+     * Normalise a raw, non‑negative feature vector in place.  An all zero
+     * vector, as produced for an unreadable image, is left unchanged.
+     *
+     * @param vector array whose first {@code length} elements hold the
+     *               vector
+     * @param length number of components
+     */
+    public abstract void normalise(float[] vector, int length);
+}
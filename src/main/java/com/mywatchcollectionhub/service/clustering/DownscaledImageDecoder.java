@@ -0,0 +1,141 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Decodes images straight into a small, fixed size RGB grid.
+ *
+ * <p>
+ * Rather than reading the full resolution raster and scaling it down with
+ * AWT, the decoder asks the {@link ImageReader} to subsample the source while
+ * decoding so that only roughly two source pixels per grid cell and axis are
+ * ever materialised.  The subsampled pixels are fetched with a single bulk
+ * {@link BufferedImage#getRGB(int, int, int, int, int[], int, int)} call and
+ * box averaged into the grid, which closely matches the area averaging
+ * previously performed by {@code getScaledInstance(..., SCALE_SMOOTH)}.
+ */
+public final class DownscaledImageDecoder {
+
+    /**
+     * Number of subsampled source pixels kept per grid cell along each axis.
+     * Two keeps the averaging smooth while bounding the decoded raster to
+     * roughly {@code (2 * size)²} pixels regardless of the source resolution.
+     */
+    private static final int SAMPLES_PER_CELL = 2;
+
+    private DownscaledImageDecoder() {
+    }
+
+    /**
+     * Decode the given file into a {@code size x size} grid of packed RGB
+     * values in row‑major order.
+     *
+     * @param file image file
+     * @param size width and height of the grid
+     * @return packed {@code 0xRRGGBB} values, or {@code null} if no image
+     *         reader understands the file
+     * @throws IOException if the file cannot be read or decoded
+     */
+    public static int[] decodeGrid(File file, int size) throws IOException {
+        BufferedImage img = decodeSubsampled(file, size * SAMPLES_PER_CELL);
+        if (img == null) {
+            return null;
+        }
+        return toGrid(img, size);
+    }
+
+    /**
+     * Box average an already decoded image into a {@code size x size} grid
+     * of packed RGB values in row‑major order, as {@link #decodeGrid} does.
+     * Lets a caller that decoded the image for another purpose reuse the
+     * raster instead of decoding the file again.
+     *
+     * @param img  decoded image
+     * @param size width and height of the grid
+     * @return packed {@code 0xRRGGBB} values
+     */
+    public static int[] toGrid(BufferedImage img, int size) {
+        int w = img.getWidth();
+        int h = img.getHeight();
+        int[] pixels = img.getRGB(0, 0, w, h, null, 0, w);
+        return boxAverage(pixels, w, h, size);
+    }
+
+    /**
+     * Decode an image, subsampling the source so that the result is no
+     * smaller than {@code minSide} along either axis where the source
+     * allows it.
+     *
+     * @param file    image file
+     * @param minSide smallest width and height wanted
+     * @return the decoded image, or {@code null} if no image reader
+     *         understands the file
+     * @throws IOException if the file cannot be read or decoded
+     */
+    public static BufferedImage decodeSubsampled(File file, int minSide) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int stepX = Math.max(1, width / minSide);
+                int stepY = Math.max(1, height / minSide);
+                param.setSourceSubsampling(stepX, stepY, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Average the packed RGB pixels of a {@code w x h} image into a
+     * {@code size x size} grid.  Cells smaller than a pixel (when the image
+     * is smaller than the grid) take the nearest pixel.
+     */
+    private static int[] boxAverage(int[] pixels, int w, int h, int size) {
+        int[] grid = new int[size * size];
+        for (int cy = 0; cy < size; cy++) {
+            int y0 = cy * h / size;
+            int y1 = Math.max(y0 + 1, (cy + 1) * h / size);
+            for (int cx = 0; cx < size; cx++) {
+                int x0 = cx * w / size;
+                int x1 = Math.max(x0 + 1, (cx + 1) * w / size);
+                long r = 0;
+                long g = 0;
+                long b = 0;
+                for (int y = y0; y < y1; y++) {
+                    int row = y * w;
+                    for (int x = x0; x < x1; x++) {
+                        int rgb = pixels[row + x];
+                        r += (rgb >> 16) & 0xFF;
+                        g += (rgb >> 8) & 0xFF;
+                        b += rgb & 0xFF;
+                    }
+                }
+                int count = (y1 - y0) * (x1 - x0);
+                int half = count / 2;
+                grid[cy * size + cx] = (int) ((r + half) / count) << 16
+                        | (int) ((g + half) / count) << 8
+                        | (int) ((b + half) / count);
+            }
+        }
+        return grid;
+    }
+}
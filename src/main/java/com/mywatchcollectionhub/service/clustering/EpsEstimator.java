@@ -0,0 +1,87 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import java.util.Arrays;
+
+/**
+ * Estimates a DBSCAN epsilon radius from the k‑distance curve of a batch.
+ *
+ * <p>
+ * For each point of an evenly spaced sample the distance to its k‑th
+ * nearest other sampled point is computed.  Sorted in ascending order
+ * these distances form a curve that stays flat while points lie within
+ * clusters and rises steeply once they reach between clusters; the radius
+ * is taken at the knee, the point of the curve furthest below the chord
+ * joining its ends.  Only the sample is compared, so the cost is bounded by
+ * the square of the sample size whatever the size of the batch.  The
+ * neighbour rank is scaled down with the sampling rate, as the k‑th
+ * neighbour in the batch is roughly the {@code k·s/n}‑th in the sample;
+ * below one neighbour the sample is sparser than the batch and the
+ * estimate errs on the generous side.
+ */
+public final class EpsEstimator {
+
+    private EpsEstimator() {
+    }
+
+    /**
+     * Estimate the radius for the given features.
+     *
+     * @param features   feature vectors, one row per point
+     * @param k          neighbour rank, normally the minimum neighbourhood
+     *                   size
+     * @param sampleSize largest number of points compared
+     * @return the estimated radius, or {@code NaN} if the batch is too small
+     *         or too uniform to show a knee, or the knee lies among exact
+     *         duplicates
+     */
+    public static double estimate(FeatureMatrix features, int k, int sampleSize) {
+        int n = features.size();
+        int s = Math.min(n, sampleSize);
+        int rank = (int) Math.max(1, Math.round((double) k * s / n));
+        if (s < 3 || s - 1 < rank) {
+            return Double.NaN;
+        }
+        int[] sample = new int[s];
+        for (int i = 0; i < s; i++) {
+            sample[i] = (int) ((long) i * n / s);
+        }
+        double[] kDistances = new double[s];
+        float[] distances = new float[s - 1];
+        for (int i = 0; i < s; i++) {
+            int m = 0;
+            for (int j = 0; j < s; j++) {
+                if (j != i) {
+                    distances[m++] = FeatureVectors.squaredDistance(features, sample[i], sample[j]);
+                }
+            }
+            Arrays.sort(distances);
+            kDistances[i] = Math.sqrt(distances[rank - 1]);
+        }
+        Arrays.sort(kDistances);
+        double eps = knee(kDistances);
+        return eps > 0 ? eps : Double.NaN;
+    }
+
+    /**
+     * Value at the point of an ascending curve furthest below the chord
+     * from its first to its last point.
+     */
+    static double knee(double[] curve) {
+        int last = curve.length - 1;
+        double rise = curve[last] - curve[0];
+        if (!(rise > 0)) {
+            return Double.NaN;
+        }
+        int best = -1;
+        double bestGap = 0.0;
+        for (int i = 1; i < last; i++) {
+            double chord = curve[0] + rise * i / last;
+            double gap = chord - curve[i];
+            if (gap > bestGap) {
+                bestGap = gap;
+                best = i;
+            }
+        }
+        return best >= 0 ? curve[best] : Double.NaN;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Computes the feature vector of an image from the small RGB grid produced
+ * by {@link DownscaledImageDecoder}.
+ *
+ * <p>
+ * Implementations write raw, non‑negative values; the clustering service
+ * normalises them according to {@link #getMetric()} before they are stored
+ * or compared.  Implementations must be stateless, as one instance extracts
+ * features on several threads at once.
+ */
+public interface FeatureExtractor {
+
+    /**
+     * Name of the extractor, as used in logs.
+     *
+     * @return extractor name
+     */
+    String getName();
+
+    /**
+     * Number of components in each feature vector.
+     *
+     * @return feature dimension
+     */
+    int getDimension();
+
+    /**
+     * Distance used to compare the extracted vectors.
+     *
+     * @return distance metric
+     */
+    DistanceMetric getMetric();
+
+    /**
+     * Compute the raw feature vector of an image.
+     *
+     * @param grid   packed {@code 0xRRGGBB} values in row‑major order
+     * @param size   width and height of the grid
+     * @param target array whose first {@link #getDimension()} elements,
+     *               initially zero, receive the vector
+     */
+    void extract(int[] grid, int size, float[] target);
+}
@@ -0,0 +1,39 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Feature extractors available for clustering.  Selected via the
+ * {@code image.clustering.feature-extractor} property.
+ */
+public enum FeatureExtractorMode {
+
+    /** 768‑bin per‑channel RGB histograms; the original feature. */
+    RGB_HISTOGRAM {
+        @Override
+        public FeatureExtractor create() {
+            return new RgbHistogramExtractor();
+        }
+    },
+
+    /** 512‑bin joint HSV histogram. */
+    HSV_HISTOGRAM {
+        @Override
+        public FeatureExtractor create() {
+            return new HsvHistogramExtractor();
+        }
+    },
+
+    /** 128‑component gradient orientation descriptor. */
+    GRADIENT_ORIENTATION {
+        @Override
+        public FeatureExtractor create() {
+            return new GradientOrientationExtractor();
+        }
+    };
+
+    /**
+     * Create the extractor.
+     *
+     * @return a ready to use extractor
+     */
+    public abstract FeatureExtractor create();
+}
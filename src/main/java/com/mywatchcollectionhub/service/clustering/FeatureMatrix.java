@@ -0,0 +1,103 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import java.util.Arrays;
+
+/**
+ * Row‑major matrix of float32 feature vectors held in a single flat array.
+ *
+ * <p>
+ * Compared with a {@code double[][]} this halves the storage per component
+ * and removes the per‑row array header and pointer indirection, which keeps
+ * neighbouring rows adjacent in memory for the distance kernels.  The matrix
+ * grows on {@link #add(float[])}; rows written with {@link #set(int, float[])}
+ * must lie within the size given at construction or reached by adds.
+ */
+public final class FeatureMatrix {
+
+    private final int dimension;
+    private float[] data;
+    private int size;
+
+    /**
+     * Create a matrix with {@code rows} zero rows.
+     *
+     * @param dimension components per row
+     * @param rows      initial number of rows
+     */
+    public FeatureMatrix(int dimension, int rows) {
+        this.dimension = dimension;
+        this.data = new float[Math.max(rows, 1) * dimension];
+        this.size = rows;
+    }
+
+    /**
+     * Number of components per row.
+     *
+     * @return row dimension
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Number of rows.
+     *
+     * @return row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The backing array.  Row {@code i} starts at {@link #offset(int)}.
+     *
+     * @return backing array, shared with the matrix
+     */
+    public float[] data() {
+        return data;
+    }
+
+    /**
+     * Index of the first component of a row in {@link #data()}.
+     *
+     * @param row row index
+     * @return array offset
+     */
+    public int offset(int row) {
+        return row * dimension;
+    }
+
+    /**
+     * Overwrite a row.
+     *
+     * @param row    row index
+     * @param vector vector of length {@link #dimension()}
+     */
+    public void set(int row, float[] vector) {
+        System.arraycopy(vector, 0, data, offset(row), dimension);
+    }
+
+    /**
+     * Append a row, growing the backing array as needed.
+     *
+     * @param vector vector of length {@link #dimension()}
+     * @return index of the new row
+     */
+    public int add(float[] vector) {
+        if ((size + 1) * dimension > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, (size + 1) * dimension));
+        }
+        set(size, vector);
+        return size++;
+    }
+
+    /**
+     * Copy a row out of the matrix.
+     *
+     * @param row row index
+     * @return a new array holding the row
+     */
+    public float[] row(int row) {
+        return Arrays.copyOfRange(data, offset(row), offset(row) + dimension);
+    }
+}
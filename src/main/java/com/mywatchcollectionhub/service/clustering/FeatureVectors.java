@@ -0,0 +1,76 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Distance functions shared by the clustering service and its neighbour
+ * indices.  Keeping them in one place guarantees that the brute force scan
+ * and the tree based indices agree on exactly which points lie within the
+ * epsilon radius.
+ *
+ * <p>
+ * The kernel is chosen once per JVM: the Vector API implementation when the
+ * {@code jdk.incubator.vector} module has been added to the boot layer,
+ * otherwise the scalar fallback.
+ */
+public final class FeatureVectors {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeatureVectors.class);
+
+    private static final DistanceKernel KERNEL = selectKernel();
+
+    private FeatureVectors() {
+    }
+
+    /**
+     * The distance kernel in use.
+     *
+     * @return shared kernel instance
+     */
+    public static DistanceKernel kernel() {
+        return KERNEL;
+    }
+
+    /**
+     * Squared Euclidean distance between two rows of a matrix.
+     *
+     * @param m matrix
+     * @param i first row
+     * @param j second row
+     * @return the squared distance
+     */
+    public static float squaredDistance(FeatureMatrix m, int i, int j) {
+        return KERNEL.squaredDistance(m.data(), m.offset(i), m.data(), m.offset(j), m.dimension());
+    }
+
+    /**
+     * Squared Euclidean distance between a vector stored in an arbitrary
+     * array and a row of a matrix.
+     *
+     * @param query       array holding a vector of the matrix's dimension
+     * @param queryOffset index of the vector's first component
+     * @param m           matrix
+     * @param row         row index
+     * @return the squared distance
+     */
+    public static float squaredDistance(float[] query, int queryOffset, FeatureMatrix m, int row) {
+        return KERNEL.squaredDistance(query, queryOffset, m.data(), m.offset(row), m.dimension());
+    }
+
+    private static DistanceKernel selectKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                DistanceKernel kernel = (DistanceKernel) Class
+                        .forName(FeatureVectors.class.getPackageName() + ".VectorApiDistanceKernel")
+                        .getDeclaredConstructor()
+                        .newInstance();
+                logger.info("Using Vector API distance kernel");
+                return kernel;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.warn("Vector API present but unusable, falling back to scalar kernel: {}", e.toString());
+            }
+        }
+        return new ScalarDistanceKernel();
+    }
+}
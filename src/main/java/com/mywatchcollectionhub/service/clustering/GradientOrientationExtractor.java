@@ -0,0 +1,57 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Histograms of gradient orientation over a 4x4 grid of cells, 8 bins per
+ * cell and 128 components in all, compared by Euclidean distance.
+ *
+ * <p>
+ * Gradients are taken from the luminance with central differences and
+ * each pixel votes for the orientation of its gradient with the gradient's
+ * magnitude.  The descriptor captures shape, such as the outline of the
+ * case, the hands and the indices, and ignores colour, so it separates
+ * watches with similar colour schemes that colour histograms merge.
+ */
+public final class GradientOrientationExtractor implements FeatureExtractor {
+
+    private static final int CELLS = 4;
+    private static final int ORIENTATIONS = 8;
+
+    @Override
+    public String getName() {
+        return "gradient-orientation";
+    }
+
+    @Override
+    public int getDimension() {
+        return CELLS * CELLS * ORIENTATIONS;
+    }
+
+    @Override
+    public DistanceMetric getMetric() {
+        return DistanceMetric.EUCLIDEAN;
+    }
+
+    @Override
+    public void extract(int[] grid, int size, float[] target) {
+        float[] luma = new float[grid.length];
+        for (int i = 0; i < grid.length; i++) {
+            int rgb = grid[i];
+            luma[i] = 0.299f * ((rgb >> 16) & 0xFF) + 0.587f * ((rgb >> 8) & 0xFF) + 0.114f * (rgb & 0xFF);
+        }
+        for (int y = 1; y < size - 1; y++) {
+            int cellRow = y * CELLS / size;
+            for (int x = 1; x < size - 1; x++) {
+                float dx = luma[y * size + x + 1] - luma[y * size + x - 1];
+                float dy = luma[(y + 1) * size + x] - luma[(y - 1) * size + x];
+                float magnitude = (float) Math.sqrt(dx * dx + dy * dy);
+                if (magnitude == 0) {
+                    continue;
+                }
+                double angle = Math.atan2(dy, dx) + Math.PI;
+                int bin = Math.min(ORIENTATIONS - 1, (int) (angle * ORIENTATIONS / (2 * Math.PI)));
+                int cell = cellRow * CELLS + x * CELLS / size;
+                target[cell * ORIENTATIONS + bin] += magnitude;
+            }
+        }
+    }
+}
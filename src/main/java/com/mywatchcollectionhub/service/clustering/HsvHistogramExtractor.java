@@ -0,0 +1,59 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Joint HSV colour histogram with 8 hue, 8 saturation and 8 value levels,
+ * 512 bins in all, compared by Hellinger distance.
+ *
+ * <p>
+ * Unlike separate per‑channel histograms a joint histogram keeps which
+ * colours occur together, so a blue dial with a steel case is not confused
+ * with a steel dial on a blue strap, and hue is largely independent of the
+ * exposure of the photo.
+ */
+public final class HsvHistogramExtractor implements FeatureExtractor {
+
+    private static final int LEVELS = 8;
+
+    @Override
+    public String getName() {
+        return "hsv-histogram";
+    }
+
+    @Override
+    public int getDimension() {
+        return LEVELS * LEVELS * LEVELS;
+    }
+
+    @Override
+    public DistanceMetric getMetric() {
+        return DistanceMetric.HELLINGER;
+    }
+
+    @Override
+    public void extract(int[] grid, int size, float[] target) {
+        for (int rgb : grid) {
+            int r = (rgb >> 16) & 0xFF;
+            int g = (rgb >> 8) & 0xFF;
+            int b = rgb & 0xFF;
+            int max = Math.max(r, Math.max(g, b));
+            int min = Math.min(r, Math.min(g, b));
+            int chroma = max - min;
+            int hue = 0;
+            if (chroma > 0) {
+                // Hue in sixths of the colour wheel, scaled to [0, 6 * chroma).
+                int sixths;
+                if (max == r) {
+                    sixths = g - b + (g < b ? 6 * chroma : 0);
+                } else if (max == g) {
+                    sixths = b - r + 2 * chroma;
+                } else {
+                    sixths = r - g + 4 * chroma;
+                }
+                hue = Math.min(LEVELS - 1, sixths * LEVELS / (6 * chroma));
+            }
+            int saturation = max > 0 ? Math.min(LEVELS - 1, chroma * LEVELS / max) : 0;
+            int value = max * LEVELS / 256;
+            target[(hue * LEVELS + saturation) * LEVELS + value]++;
+        }
+    }
+}
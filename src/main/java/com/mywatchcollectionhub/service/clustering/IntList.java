@@ -0,0 +1,63 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable list of primitive ints, used to collect neighbour query
+ * results without boxing.  A list can be cleared and refilled so that one
+ * instance serves every query of a clustering run.
+ */
+public final class IntList {
+
+    private int[] data = new int[16];
+    private int size;
+
+    /**
+     * Append a value, growing the backing array as needed.
+     *
+     * @param value value to append
+     */
+    public void add(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, size * 2);
+        }
+        data[size++] = value;
+    }
+
+    /**
+     * Remove all values, keeping the backing array.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Value at a position.
+     *
+     * @param index position, less than {@link #size()}
+     * @return the value
+     */
+    public int get(int index) {
+        return data[index];
+    }
+
+    /**
+     * Sort the values in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(data, 0, size);
+    }
+
+    /**
+     * Copy the values into a new array.
+     *
+     * @return an array of length {@link #size()}
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+}
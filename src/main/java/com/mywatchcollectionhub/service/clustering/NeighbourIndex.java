@@ -0,0 +1,56 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Index answering epsilon range queries over a fixed set of feature vectors.
+ *
+ * <p>
+ * The DBSCAN loop in {@link com.mywatchcollectionhub.service.ImageClusteringService}
+ * asks for the neighbours of every point at least once.  Implementations are
+ * built once per clustering run and must return exactly the points whose
+ * squared distance to the query point, as computed by
+ * {@link FeatureVectors}, is less than or equal to the squared epsilon radius
+ * the index was built with, including the query point itself.  Indices are
+ * returned in ascending order so that results are identical regardless of
+ * the implementation used.
+ */
+public interface NeighbourIndex {
+
+    /**
+     * Find all points within the epsilon radius of the point at the given
+     * position.
+     *
+     * @param index position of the query point in the indexed feature set
+     * @return ascending positions of all neighbours, including {@code index}
+     */
+    int[] neighbours(int index);
+
+    /**
+     * Find all points within the epsilon radius of the point at the given
+     * position, collecting them into a caller supplied list so that repeated
+     * queries allocate nothing once the list has grown.
+     *
+     * @param index  position of the query point in the indexed feature set
+     * @param result list cleared and then filled with the ascending
+     *               positions of all neighbours, including {@code index}
+     */
+    void neighbours(int index, IntList result);
+
+    /**
+     * Find all indexed points within the epsilon radius of an arbitrary
+     * vector that need not be part of the index.
+     *
+     * @param query vector of the same dimension as the indexed features
+     * @return ascending positions of all indexed neighbours
+     */
+    int[] neighboursOf(float[] query);
+
+    /**
+     * Find all indexed points within the given radius, which may differ
+     * from the one the index was built with, of an arbitrary vector.
+     *
+     * @param query  vector of the same dimension as the indexed features
+     * @param radius search radius
+     * @return ascending positions of all indexed neighbours
+     */
+    int[] neighboursOf(float[] query, double radius);
+}
@@ -0,0 +1,39 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Strategies available for answering DBSCAN neighbour queries.  Selected via
+ * the {@code image.clustering.neighbour-index} property.
+ */
+public enum NeighbourSearchMode {
+
+    /**
+     * Compare every point with every other point.  Slow but trivially
+     * correct; kept as the reference implementation.
+     */
+    BRUTE_FORCE {
+        @Override
+        public NeighbourIndex build(FeatureMatrix features, double eps) {
+            return new BruteForceNeighbourIndex(features, eps);
+        }
+    },
+
+    /**
+     * Vantage‑point tree giving exact results with sub‑linear queries on
+     * typical photo collections.
+     */
+    VP_TREE {
+        @Override
+        public NeighbourIndex build(FeatureMatrix features, double eps) {
+            return new VpTreeNeighbourIndex(features, eps);
+        }
+    };
+
+    /**
+     * Build an index over the given features for the given radius.
+     *
+     * @param features feature vectors, one row per point
+     * @param eps      epsilon radius used for every query
+     * @return a ready to query index
+     */
+    public abstract NeighbourIndex build(FeatureMatrix features, double eps);
+}
@@ -0,0 +1,102 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * 64‑bit difference hash (dHash) of an image.
+ *
+ * <p>
+ * The image is reduced to a 9x8 grid of luminance values and each bit
+ * records whether a cell is brighter than its right‑hand neighbour.  The
+ * hash captures the coarse layout of light and dark areas, so re‑encoded,
+ * slightly cropped or re‑exposed copies of a photo, such as the frames of a
+ * burst, differ in only a few bits while unrelated photos differ in about
+ * half of them.  Two hashes are compared by the Hamming distance between
+ * them.
+ *
+ * <p>
+ * Hashes are kept in the {@code float[]} records of the feature store, so
+ * {@link #pack} and {@link #unpack} spread one over {@value #PACKED_LENGTH}
+ * floats of 16 bits each, which float32 represents exactly.
+ */
+public final class PerceptualHash {
+
+    /** Number of floats a packed hash occupies. */
+    public static final int PACKED_LENGTH = 4;
+
+    private static final int HASH_WIDTH = 9;
+    private static final int HASH_HEIGHT = 8;
+
+    private PerceptualHash() {
+    }
+
+    /**
+     * Compute the difference hash of an image already reduced to a square
+     * grid by {@link DownscaledImageDecoder}.
+     *
+     * @param grid packed {@code 0xRRGGBB} values in row‑major order
+     * @param size width and height of the grid, at least 9
+     * @return the 64‑bit hash
+     */
+    public static long dHash(int[] grid, int size) {
+        double[] luma = new double[HASH_WIDTH * HASH_HEIGHT];
+        int[] counts = new int[HASH_WIDTH * HASH_HEIGHT];
+        for (int y = 0; y < size; y++) {
+            int cy = y * HASH_HEIGHT / size;
+            for (int x = 0; x < size; x++) {
+                int cell = cy * HASH_WIDTH + x * HASH_WIDTH / size;
+                int rgb = grid[y * size + x];
+                luma[cell] += 0.299 * ((rgb >> 16) & 0xFF) + 0.587 * ((rgb >> 8) & 0xFF) + 0.114 * (rgb & 0xFF);
+                counts[cell]++;
+            }
+        }
+        long hash = 0L;
+        for (int cy = 0; cy < HASH_HEIGHT; cy++) {
+            for (int cx = 0; cx < HASH_WIDTH - 1; cx++) {
+                int cell = cy * HASH_WIDTH + cx;
+                hash <<= 1;
+                if (luma[cell] / counts[cell] > luma[cell + 1] / counts[cell + 1]) {
+                    hash |= 1L;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Number of bits in which two hashes differ.
+     *
+     * @param a first hash
+     * @param b second hash
+     * @return Hamming distance, between 0 and 64
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    /**
+     * Write a hash into {@value #PACKED_LENGTH} consecutive floats.
+     *
+     * @param hash   the hash
+     * @param target destination array
+     * @param offset index of the first float to write
+     */
+    public static void pack(long hash, float[] target, int offset) {
+        for (int i = 0; i < PACKED_LENGTH; i++) {
+            target[offset + i] = (float) ((hash >>> (16 * i)) & 0xFFFF);
+        }
+    }
+
+    /**
+     * Read a hash written by {@link #pack}.
+     *
+     * @param source array holding the packed hash
+     * @param offset index of the first float
+     * @return the hash
+     */
+    public static long unpack(float[] source, int offset) {
+        long hash = 0L;
+        for (int i = 0; i < PACKED_LENGTH; i++) {
+            hash |= ((long) source[offset + i] & 0xFFFF) << (16 * i);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,121 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import java.util.Arrays;
+
+/**
+ * Multi‑index hash table answering Hamming range queries over a fixed set of
+ * {@link PerceptualHash perceptual hashes}.
+ *
+ * <p>
+ * For a radius of {@code d} bits the 64‑bit hashes are cut into
+ * {@code d + 1}, and at least two, disjoint chunks.  By the pigeonhole
+ * principle two hashes at most {@code d} bits apart agree exactly on at
+ * least one chunk, so each point only needs to be compared with the points
+ * sharing one of its chunk values.  Each table is a primitive array of
+ * {@code (chunk, point)} keys sorted once; the points sharing a chunk value
+ * form a contiguous run.
+ * With well spread hashes the runs are short and a query costs close to
+ * constant time, so collapsing a batch is close to linear in its size.
+ */
+public final class PerceptualHashIndex {
+
+    private final long[] hashes;
+    private final int maxDistance;
+    private final int[] chunkShift;
+    private final long[] chunkMask;
+    /** Per table, the points sorted by chunk value. */
+    private final int[][] sortedPoints;
+    /** Per table and point, the bounds of the run sharing its chunk value. */
+    private final int[][] runStart;
+    private final int[][] runEnd;
+
+    /**
+     * Index the given hashes.
+     *
+     * @param hashes      one hash per point
+     * @param maxDistance largest Hamming distance, in bits, at which two
+     *                    hashes are neighbours; between 0 and 31
+     */
+    public PerceptualHashIndex(long[] hashes, int maxDistance) {
+        if (maxDistance < 0 || maxDistance > 31) {
+            throw new IllegalArgumentException("Hamming radius must be between 0 and 31 bits: " + maxDistance);
+        }
+        this.hashes = hashes;
+        this.maxDistance = maxDistance;
+        // At least two tables, so every chunk fits the upper half of a sort key.
+        int tables = Math.max(2, maxDistance + 1);
+        int n = hashes.length;
+        chunkShift = new int[tables];
+        chunkMask = new long[tables];
+        sortedPoints = new int[tables][n];
+        runStart = new int[tables][n];
+        runEnd = new int[tables][n];
+        int shift = 0;
+        for (int t = 0; t < tables; t++) {
+            int width = 64 / tables + (t < 64 % tables ? 1 : 0);
+            chunkShift[t] = shift;
+            chunkMask[t] = (1L << width) - 1;
+            shift += width;
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = (chunk(t, hashes[i]) << 32) | i;
+            }
+            Arrays.sort(keys);
+            int start = 0;
+            for (int k = 0; k < n; k++) {
+                sortedPoints[t][k] = (int) keys[k];
+                if (k + 1 == n || keys[k + 1] >>> 32 != keys[k] >>> 32) {
+                    for (int r = start; r <= k; r++) {
+                        runStart[t][(int) keys[r]] = start;
+                        runEnd[t][(int) keys[r]] = k + 1;
+                    }
+                    start = k + 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Collapse the indexed points into groups of near‑duplicates.  Points
+     * are visited in order; a point not yet grouped becomes the
+     * representative of every ungrouped point within the Hamming radius of
+     * it, itself included, whose feature vector is also within
+     * {@code radius} of its own.  The hash only proposes candidates: images
+     * with the same layout of light and dark areas but different colours
+     * are kept apart by their features.
+     *
+     * @param features one feature vector row per indexed point
+     * @param radius   largest Euclidean feature distance between a
+     *                 representative and the points it stands for
+     * @return for each point, the position of its representative; a point
+     *         is a representative exactly when the entry equals its own
+     *         position
+     */
+    public int[] representatives(FeatureMatrix features, double radius) {
+        float radius2 = (float) (radius * radius);
+        int n = hashes.length;
+        int[] representative = new int[n];
+        Arrays.fill(representative, -1);
+        for (int i = 0; i < n; i++) {
+            if (representative[i] >= 0) {
+                continue;
+            }
+            representative[i] = i;
+            for (int t = 0; t < sortedPoints.length; t++) {
+                for (int k = runStart[t][i]; k < runEnd[t][i]; k++) {
+                    int j = sortedPoints[t][k];
+                    if (representative[j] < 0
+                            && PerceptualHash.distance(hashes[i], hashes[j]) <= maxDistance
+                            && FeatureVectors.squaredDistance(features, i, j) <= radius2) {
+                        representative[j] = i;
+                    }
+                }
+            }
+        }
+        return representative;
+    }
+
+    private long chunk(int table, long hash) {
+        return (hash >>> chunkShift[table]) & chunkMask[table];
+    }
+}
@@ -0,0 +1,36 @@
+package com.mywatchcollectionhub.service.clustering;
+
+/**
+ * Three 256‑bin histograms, one per colour channel, concatenated into a
+ * single 768‑element vector and compared by Euclidean distance.  The
+ * original feature of the clustering service; most bins of a 64x64 grid are
+ * empty, so the compact extractors are usually cheaper.
+ */
+public final class RgbHistogramExtractor implements FeatureExtractor {
+
+    private static final int BINS = 256;
+
+    @Override
+    public String getName() {
+        return "rgb-histogram";
+    }
+
+    @Override
+    public int getDimension() {
+        return 3 * BINS;
+    }
+
+    @Override
+    public DistanceMetric getMetric() {
+        return DistanceMetric.EUCLIDEAN;
+    }
+
+    @Override
+    public void extract(int[] grid, int size, float[] target) {
+        for (int rgb : grid) {
+            target[(rgb >> 16) & 0xFF]++;
+            target[BINS + ((rgb >> 8) & 0xFF)]++;
+            target[2 * BINS + (rgb & 0xFF)]++;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DistanceKernel} using the JDK Vector API to process a full SIMD
+ * register of components per iteration.
+ *
+ * <p>
+ * The Vector API is an incubator module, so this class must only be loaded
+ * after checking that {@code jdk.incubator.vector} is present in the boot
+ * layer (see {@link FeatureVectors}); the JVM needs to be started with
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+final class VectorApiDistanceKernel implements DistanceKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public float squaredDistance(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector acc = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector d = FloatVector.fromArray(SPECIES, a, aOffset + i)
+                    .sub(FloatVector.fromArray(SPECIES, b, bOffset + i));
+            acc = d.fma(d, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            float d = a[aOffset + i] - b[bOffset + i];
+            sum += d * d;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,168 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import java.util.Random;
+
+/**
+ * Vantage‑point tree implementation of {@link NeighbourIndex}.
+ *
+ * <p>
+ * The tree is stored implicitly in a permutation of the point positions.  A
+ * node covering the segment {@code [lo, hi)} keeps its vantage point at
+ * {@code lo}; the points closer to it than the median distance occupy the
+ * first half of the remaining segment and the farther points the second
+ * half.  Range queries use the triangle inequality to skip whole subtrees,
+ * and only points that pass the same distance test as
+ * {@link BruteForceNeighbourIndex} are reported, so both indices return
+ * identical neighbour sets.
+ */
+public class VpTreeNeighbourIndex implements NeighbourIndex {
+
+    /**
+     * Segments at or below this size are scanned linearly rather than split
+     * further; the bookkeeping of a deeper tree costs more than it saves.
+     */
+    private static final int LEAF_SIZE = 8;
+
+    /**
+     * Slack added to the pruning bounds so that float32 rounding in the
+     * triangle inequality can never discard a point lying exactly on the
+     * epsilon boundary.  The final membership test is exact.
+     */
+    private static final double PRUNE_TOLERANCE = 1e-3;
+
+    private final FeatureMatrix features;
+    private final double eps;
+    private final float eps2;
+    private final int[] items;
+    /** Median distance from the vantage point stored at each node position. */
+    private final double[] median;
+
+    public VpTreeNeighbourIndex(FeatureMatrix features, double eps) {
+        this.features = features;
+        this.eps = eps;
+        this.eps2 = (float) (eps * eps);
+        int n = features.size();
+        this.items = new int[n];
+        for (int i = 0; i < n; i++) {
+            items[i] = i;
+        }
+        this.median = new double[n];
+        build(0, n, new double[n], new Random(42));
+    }
+
+    @Override
+    public int[] neighbours(int index) {
+        IntList result = new IntList();
+        neighbours(index, result);
+        return result.toArray();
+    }
+
+    @Override
+    public void neighbours(int index, IntList result) {
+        result.clear();
+        search(features.data(), features.offset(index), eps, eps2, 0, items.length, result);
+        result.sort();
+    }
+
+    @Override
+    public int[] neighboursOf(float[] query) {
+        return neighboursOf(query, eps);
+    }
+
+    @Override
+    public int[] neighboursOf(float[] query, double radius) {
+        IntList result = new IntList();
+        search(query, 0, radius, (float) (radius * radius), 0, items.length, result);
+        result.sort();
+        return result.toArray();
+    }
+
+    private void build(int lo, int hi, double[] dist, Random random) {
+        while (hi - lo > LEAF_SIZE) {
+            // Pick a random vantage point to avoid degenerate trees on sorted input.
+            swap(lo, lo + random.nextInt(hi - lo));
+            int vp = items[lo];
+            for (int i = lo + 1; i < hi; i++) {
+                dist[i] = Math.sqrt(FeatureVectors.squaredDistance(features, vp, items[i]));
+            }
+            int mid = lo + 1 + (hi - lo - 1) / 2;
+            select(lo + 1, hi - 1, mid, dist);
+            median[lo] = dist[mid];
+            build(lo + 1, mid, dist, random);
+            lo = mid;
+        }
+    }
+
+    private void search(float[] query, int queryOffset, double radius, float radius2, int lo, int hi,
+                        IntList result) {
+        while (hi - lo > LEAF_SIZE) {
+            int vp = items[lo];
+            float d2 = FeatureVectors.squaredDistance(query, queryOffset, features, vp);
+            if (d2 <= radius2) {
+                result.add(vp);
+            }
+            double d = Math.sqrt(d2);
+            int mid = lo + 1 + (hi - lo - 1) / 2;
+            double mu = median[lo];
+            boolean inside = d - radius <= mu + PRUNE_TOLERANCE;
+            boolean outside = d + radius >= mu - PRUNE_TOLERANCE;
+            if (inside && outside) {
+                search(query, queryOffset, radius, radius2, lo + 1, mid, result);
+                lo = mid;
+            } else if (inside) {
+                lo = lo + 1;
+                hi = mid;
+            } else {
+                lo = mid;
+            }
+        }
+        for (int i = lo; i < hi; i++) {
+            if (FeatureVectors.squaredDistance(query, queryOffset, features, items[i]) <= radius2) {
+                result.add(items[i]);
+            }
+        }
+    }
+
+    /**
+     * Partially order {@code items[left..right]} (and the parallel distance
+     * array) so that position {@code k} holds the element that would be
+     * there after a full sort, with smaller distances before it and larger
+     * ones after it.
+     */
+    private void select(int left, int right, int k, double[] dist) {
+        while (right > left) {
+            double pivot = dist[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (dist[i] < pivot) {
+                    i++;
+                }
+                while (dist[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    double t = dist[i];
+                    dist[i] = dist[j];
+                    dist[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int t = items[i];
+        items[i] = items[j];
+        items[j] = t;
+    }
+}
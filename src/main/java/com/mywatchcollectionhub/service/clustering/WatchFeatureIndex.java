@@ -0,0 +1,167 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import java.util.Arrays;
+
+/**
+ * Growable index of the feature vectors of images already attached to
+ * watches, used to match new uploads against the existing collection.
+ *
+ * <p>
+ * Vectors are kept in two tiers: a static {@link NeighbourIndex} over the
+ * bulk of the collection and a small delta of recently added vectors that is
+ * scanned linearly.  The static tier is rebuilt once the delta outgrows a
+ * fraction of it, so the amortised cost of an insert stays logarithmic and a
+ * lookup costs one tree query plus a scan of the (bounded) delta rather than
+ * a scan of the whole collection.  Vectors of a deleted watch are marked
+ * rather than removed, so positions stay stable; they are never matched
+ * again.
+ */
+public class WatchFeatureIndex {
+
+    /** Delta size below which the static tier is never rebuilt. */
+    private static final int MIN_DELTA = 64;
+
+    /** Owner of the vectors of deleted watches. */
+    private static final long REMOVED = Long.MIN_VALUE;
+
+    private final NeighbourSearchMode searchMode;
+    private final double eps;
+
+    private final FeatureMatrix features;
+    private long[] owners = new long[16];
+
+    /** Number of leading vectors covered by {@link #indexed}. */
+    private int indexedSize;
+    private NeighbourIndex indexed;
+
+    public WatchFeatureIndex(NeighbourSearchMode searchMode, double eps, int dimension) {
+        this.searchMode = searchMode;
+        this.eps = eps;
+        this.features = new FeatureMatrix(dimension, 0);
+    }
+
+    /**
+     * Record the feature vector of an image belonging to the given watch.
+     *
+     * @param feature feature vector
+     * @param watchId owning watch id
+     */
+    public void add(float[] feature, long watchId) {
+        int row = features.add(feature);
+        if (row == owners.length) {
+            owners = Arrays.copyOf(owners, row * 2);
+        }
+        owners[row] = watchId;
+        int size = features.size();
+        if (size - indexedSize > Math.max(MIN_DELTA, indexedSize / 8)) {
+            indexed = searchMode.build(features, eps);
+            indexedSize = size;
+        }
+    }
+
+    /**
+     * Stop matching the vectors of a deleted watch.
+     *
+     * @param watchId id of the deleted watch
+     * @return number of vectors dropped
+     */
+    public int removeWatch(long watchId) {
+        int removed = 0;
+        for (int i = 0; i < features.size(); i++) {
+            if (owners[i] == watchId) {
+                owners[i] = REMOVED;
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Find the watches owning an image within the epsilon radius of the
+     * query, nearest first.
+     *
+     * @param query feature vector of a new image
+     * @return distinct watch ids ordered by distance of their closest image
+     */
+    public long[] matches(float[] query) {
+        return matches(query, eps);
+    }
+
+    /**
+     * Find the watches owning an image within the given radius of the
+     * query, nearest first.
+     *
+     * @param query  feature vector of a new image
+     * @param radius match radius, e.g. the one the new images were
+     *               clustered with
+     * @return distinct watch ids ordered by distance of their closest image
+     */
+    public long[] matches(float[] query, double radius) {
+        float radius2 = (float) (radius * radius);
+        long[] ids = new long[4];
+        float[] distances = new float[4];
+        int count = 0;
+        if (indexed != null) {
+            for (int position : indexed.neighboursOf(query, radius)) {
+                count = offer(position, query, ids, distances, count);
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    distances = Arrays.copyOf(distances, count * 2);
+                }
+            }
+        }
+        for (int position = indexedSize; position < features.size(); position++) {
+            if (FeatureVectors.squaredDistance(query, 0, features, position) <= radius2) {
+                count = offer(position, query, ids, distances, count);
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    distances = Arrays.copyOf(distances, count * 2);
+                }
+            }
+        }
+        // Insertion sort by distance; matches per query are few.
+        for (int i = 1; i < count; i++) {
+            long id = ids[i];
+            float d = distances[i];
+            int j = i - 1;
+            while (j >= 0 && distances[j] > d) {
+                ids[j + 1] = ids[j];
+                distances[j + 1] = distances[j];
+                j--;
+            }
+            ids[j + 1] = id;
+            distances[j + 1] = d;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Number of vectors in the index.
+     *
+     * @return indexed vector count
+     */
+    public int size() {
+        return features.size();
+    }
+
+    /**
+     * Merge a matching vector into the per‑watch result, keeping the
+     * smallest distance seen for each watch.
+     */
+    private int offer(int position, float[] query, long[] ids, float[] distances, int count) {
+        long owner = owners[position];
+        if (owner == REMOVED) {
+            return count;
+        }
+        float d = FeatureVectors.squaredDistance(query, 0, features, position);
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == owner) {
+                distances[i] = Math.min(distances[i], d);
+                return count;
+            }
+        }
+        ids[count] = owner;
+        distances[count] = d;
+        return count + 1;
+    }
+}
@@ -0,0 +1,58 @@
+package com.mywatchcollectionhub.service.clustering.partitioned;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs shards on threads of a pool in this JVM.  Bounds the memory of each
+ * neighbour index to one shard and spreads the queries over all cores
+ * without any serialisation.
+ */
+public final class InProcessShardExecutor implements ShardExecutor {
+
+    private final ExecutorService executor;
+
+    public InProcessShardExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public List<ShardResult> execute(List<ShardTask> tasks) throws IOException {
+        List<Future<ShardResult>> futures = new ArrayList<>(tasks.size());
+        for (ShardTask task : tasks) {
+            futures.add(executor.submit(() -> ShardWorker.process(task)));
+        }
+        return collect(futures);
+    }
+
+    /**
+     * Wait for every shard, cancelling the rest when one fails.
+     */
+    static List<ShardResult> collect(List<Future<ShardResult>> futures) throws IOException {
+        List<ShardResult> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<ShardResult> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while clustering shards");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to cluster shard", cause);
+        } finally {
+            for (Future<ShardResult> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+}
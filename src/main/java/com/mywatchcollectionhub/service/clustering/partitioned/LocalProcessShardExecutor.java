@@ -0,0 +1,151 @@
+package com.mywatchcollectionhub.service.clustering.partitioned;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Runs each shard in a separate JVM on this machine, standing in for
+ * workers on other nodes.
+ *
+ * <p>
+ * The task is written to a file and a child JVM running {@link ShardWorker}
+ * writes the result to another file.  Each process is started and waited for
+ * on a thread of the given pool, which bounds how many run at once.  The
+ * children share this JVM's class path and Java installation.  They also
+ * load the Vector API when this JVM has it, so their distance kernel rounds
+ * exactly like the one a single‑node run would use.  When the application
+ * runs from a Spring Boot executable jar, the worker is started through the
+ * jar's {@code PropertiesLauncher} with {@code loader.main}.
+ */
+public final class LocalProcessShardExecutor implements ShardExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalProcessShardExecutor.class);
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String BOOT_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private final ExecutorService executor;
+    private final String maxHeap;
+
+    /**
+     * @param executor pool whose threads start and wait for the processes
+     * @param maxHeap  {@code -Xmx} value for each worker, e.g. {@code 1g}, or
+     *                 {@code null} for the JVM default
+     */
+    public LocalProcessShardExecutor(ExecutorService executor, String maxHeap) {
+        this.executor = executor;
+        this.maxHeap = maxHeap;
+    }
+
+    @Override
+    public List<ShardResult> execute(List<ShardTask> tasks) throws IOException {
+        Path dir = Files.createTempDirectory("dbscan-shards-");
+        try {
+            List<String> command = command();
+            List<Future<ShardResult>> futures = new ArrayList<>(tasks.size());
+            for (ShardTask task : tasks) {
+                futures.add(executor.submit(() -> run(task, dir, command)));
+            }
+            return InProcessShardExecutor.collect(futures);
+        } finally {
+            deleteDirectory(dir);
+        }
+    }
+
+    private ShardResult run(ShardTask task, Path dir, List<String> command) throws IOException {
+        Path taskFile = dir.resolve("shard-" + task.getShard() + ".task");
+        Path resultFile = dir.resolve("shard-" + task.getShard() + ".result");
+        Path logFile = dir.resolve("shard-" + task.getShard() + ".log");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(taskFile)))) {
+            task.writeTo(out);
+        }
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add(taskFile.toString());
+        arguments.add(resultFile.toString());
+        Process process = new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        int exit;
+        try {
+            exit = process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for shard " + task.getShard());
+        }
+        if (exit != 0) {
+            String output = Files.readString(logFile).strip();
+            throw new IOException("Shard worker " + task.getShard() + " exited with " + exit + ": " + output);
+        }
+        ShardResult result;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(resultFile)))) {
+            result = ShardResult.readFrom(in);
+        }
+        logger.debug("Shard {} clustered {} point(s) in a worker process", task.getShard(), task.size());
+        return result;
+    }
+
+    private static void deleteDirectory(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            logger.warn("Failed to delete shard directory {}: {}", dir, e.toString());
+        }
+    }
+
+    /**
+     * Command starting a worker, without the file arguments.
+     */
+    private List<String> command() throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (maxHeap != null && !maxHeap.isBlank()) {
+            command.add("-Xmx" + maxHeap);
+        }
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            command.add("--add-modules=" + VECTOR_MODULE);
+        }
+        String classPath = System.getProperty("java.class.path");
+        command.add("-cp");
+        command.add(classPath);
+        if (isBootJar(classPath)) {
+            command.add("-Dloader.main=" + ShardWorker.class.getName());
+            command.add(BOOT_LAUNCHER);
+        } else {
+            command.add(ShardWorker.class.getName());
+        }
+        return command;
+    }
+
+    private static boolean isBootJar(String classPath) throws IOException {
+        if (classPath.contains(File.pathSeparator) || !classPath.endsWith(".jar")) {
+            return false;
+        }
+        try (JarFile jar = new JarFile(classPath)) {
+            return jar.getEntry("BOOT-INF/classes/") != null;
+        }
+    }
+}
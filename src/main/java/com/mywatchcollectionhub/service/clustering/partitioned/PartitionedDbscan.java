@@ -0,0 +1,274 @@
+package com.mywatchcollectionhub.service.clustering.partitioned;
+
+import com.mywatchcollectionhub.service.clustering.Dbscan;
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+import com.mywatchcollectionhub.service.clustering.FeatureVectors;
+import com.mywatchcollectionhub.service.clustering.IntList;
+import com.mywatchcollectionhub.service.clustering.NeighbourSearchMode;
+import com.mywatchcollectionhub.service.clustering.partitioned.ShardTask.Role;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * DBSCAN split into shards that are clustered independently and merged,
+ * giving exactly the labels of a single {@link Dbscan} run.
+ *
+ * <p>
+ * <b>Partitioning.</b>  Every point is placed by its distance to a pivot,
+ * the point furthest from the first one, and the points are cut into
+ * shards of equal size along that distance.  By the triangle inequality two
+ * points whose pivot distances differ by more than eps cannot be
+ * neighbours, so a shard's owned points only need the foreign points within
+ * eps of its range (the inner halo) to be classified, and the inner halo
+ * only needs the points within 2·eps (the outer halo).  Shipping both lets
+ * a worker classify and link its points in a single round trip.
+ *
+ * <p>
+ * Distances are bounded (√2 between unit vectors), so with a realistic eps
+ * the 2·eps halos can span most of the pivot distance range and every shard
+ * would carry nearly all points.  When the largest shard, halos included,
+ * would hold more than {@link #MAX_SHARD_FRACTION} of the points the
+ * partition degenerates to a single shard, which {@link #run} clusters with
+ * one {@link Dbscan} run instead of going through the executor.
+ *
+ * <p>
+ * <b>Merging.</b>  Workers report their core points, links between core
+ * points of the same local cluster, and the local clusters each owned
+ * border point touches ({@link ShardWorker}).  Links into the halo name core
+ * points owned by other shards, so a union‑find over all links joins the
+ * pieces of clusters that straddle shard boundaries.  The single‑node loop
+ * is then replayed from the merged graph: clusters are numbered in order of
+ * their lowest core point, which is where the sequential loop discovers
+ * them, and a border point goes to the first discovered cluster it touches,
+ * provided that cluster was discovered before the loop reached the border
+ * point itself; otherwise the sequential loop would already have marked it
+ * as noise.
+ */
+public final class PartitionedDbscan {
+
+    /**
+     * Slack added to the halo widths so that rounding in the pivot
+     * distances can never leave a neighbour out of a shard.  A wider halo
+     * only costs work, never correctness.
+     */
+    private static final double HALO_TOLERANCE = 1e-3;
+
+    /**
+     * Largest share of the points one shard may carry, halos included,
+     * before sharding is abandoned: beyond it every shard repeats most of
+     * the work of a single run, on top of shipping and merging.
+     */
+    private static final double MAX_SHARD_FRACTION = 0.5;
+
+    private final NeighbourSearchMode neighbourSearchMode;
+    private final double eps;
+    private final int minPts;
+    private final int shardCount;
+
+    /**
+     * @param neighbourSearchMode index used within each shard
+     * @param eps                 epsilon radius
+     * @param minPts              minimum weight of a core neighbourhood
+     * @param shardCount          number of shards to cut the points into
+     */
+    public PartitionedDbscan(NeighbourSearchMode neighbourSearchMode, double eps, int minPts, int shardCount) {
+        this.neighbourSearchMode = neighbourSearchMode;
+        this.eps = eps;
+        this.minPts = minPts;
+        this.shardCount = Math.max(1, shardCount);
+    }
+
+    /**
+     * Cluster the points shard by shard.
+     *
+     * @param features one row per point
+     * @param weights  multiplicity of each point, or {@code null} for one
+     *                 each
+     * @param executor runs the shards
+     * @return the cluster id of each point, or {@link Dbscan#NOISE}
+     * @throws IOException if a shard cannot be processed
+     */
+    public int[] run(FeatureMatrix features, int[] weights, ShardExecutor executor) throws IOException {
+        int n = features.size();
+        if (n == 0) {
+            return new int[0];
+        }
+        List<ShardTask> tasks = partition(features, weights);
+        if (tasks.size() == 1) {
+            return new Dbscan(neighbourSearchMode.build(features, eps), n, weights, minPts).run();
+        }
+        return merge(n, executor.execute(tasks));
+    }
+
+    /**
+     * Cut the points into shards with their halos, or into a single shard
+     * owning every point when the halos would cover too much of the range.
+     *
+     * @param features one row per point
+     * @param weights  multiplicity of each point, or {@code null}
+     * @return one task per shard
+     */
+    public List<ShardTask> partition(FeatureMatrix features, int[] weights) {
+        int n = features.size();
+        int pivot = 0;
+        float furthest = -1f;
+        for (int i = 0; i < n; i++) {
+            float d = FeatureVectors.squaredDistance(features, 0, i);
+            if (d > furthest) {
+                furthest = d;
+                pivot = i;
+            }
+        }
+        // Sort points by pivot distance; the bits of a non-negative float
+        // order like the float itself, leaving the low half for the point.
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            float d = (float) Math.sqrt(FeatureVectors.squaredDistance(features, pivot, i));
+            keys[i] = ((long) Float.floatToIntBits(d) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        double[] distance = new double[n];
+        for (int r = 0; r < n; r++) {
+            order[r] = (int) keys[r];
+            distance[r] = Float.intBitsToFloat((int) (keys[r] >>> 32));
+        }
+        double inner = eps + HALO_TOLERANCE;
+        double outer = 2 * eps + 2 * HALO_TOLERANCE;
+        int shards = Math.min(shardCount, n);
+        int[] firsts = new int[shards + 1];
+        int[] froms = new int[shards];
+        int[] tos = new int[shards];
+        int largest = 0;
+        for (int s = 0; s < shards; s++) {
+            firsts[s] = (int) ((long) s * n / shards);
+            firsts[s + 1] = (int) ((long) (s + 1) * n / shards);
+            froms[s] = lowerBound(distance, distance[firsts[s]] - outer);
+            tos[s] = upperBound(distance, distance[firsts[s + 1] - 1] + outer);
+            largest = Math.max(largest, tos[s] - froms[s]);
+        }
+        if (shards > 1 && largest > MAX_SHARD_FRACTION * n) {
+            shards = 1;
+            firsts = new int[] {0, n};
+            froms = new int[] {0};
+            tos = new int[] {n};
+        }
+        ShardTask[] tasks = new ShardTask[shards];
+        for (int s = 0; s < shards; s++) {
+            int first = firsts[s];
+            int end = firsts[s + 1];
+            double lo = distance[first];
+            double hi = distance[end - 1];
+            int from = froms[s];
+            int to = tos[s];
+            int size = to - from;
+            int[] globalIds = new int[size];
+            Role[] roles = new Role[size];
+            int[] shardWeights = weights != null ? new int[size] : null;
+            FeatureMatrix shardFeatures = new FeatureMatrix(features.dimension(), size);
+            for (int r = from; r < to; r++) {
+                int local = r - from;
+                int point = order[r];
+                globalIds[local] = point;
+                if (r >= first && r < end) {
+                    roles[local] = Role.OWNED;
+                } else if (distance[r] >= lo - inner && distance[r] <= hi + inner) {
+                    roles[local] = Role.INNER_HALO;
+                } else {
+                    roles[local] = Role.OUTER_HALO;
+                }
+                if (weights != null) {
+                    shardWeights[local] = weights[point];
+                }
+                System.arraycopy(features.data(), features.offset(point),
+                        shardFeatures.data(), shardFeatures.offset(local), features.dimension());
+            }
+            tasks[s] = new ShardTask(s, neighbourSearchMode, eps, minPts, globalIds, roles,
+                    shardFeatures, shardWeights);
+        }
+        return Arrays.asList(tasks);
+    }
+
+    /**
+     * Combine shard results into the labels a single run would produce.
+     *
+     * @param n       total number of points
+     * @param results one result per shard
+     * @return the cluster id of each point, or {@link Dbscan#NOISE}
+     */
+    public static int[] merge(int n, List<ShardResult> results) {
+        boolean[] core = new boolean[n];
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        for (ShardResult result : results) {
+            IntList corePoints = result.getCorePoints();
+            for (int k = 0; k < corePoints.size(); k++) {
+                core[corePoints.get(k)] = true;
+            }
+            IntList links = result.getLinks();
+            for (int k = 0; k < links.size(); k += 2) {
+                ShardWorker.union(parent, links.get(k), links.get(k + 1));
+            }
+        }
+        // Union by smaller index makes every root its cluster's lowest core
+        // point: where the sequential loop discovers the cluster.
+        int[] labels = new int[n];
+        Arrays.fill(labels, Dbscan.NOISE);
+        int[] clusterOfRoot = new int[n];
+        int clusters = 0;
+        for (int i = 0; i < n; i++) {
+            if (core[i]) {
+                int root = ShardWorker.find(parent, i);
+                if (root == i) {
+                    clusterOfRoot[i] = clusters++;
+                }
+                labels[i] = clusterOfRoot[root];
+            }
+        }
+        for (ShardResult result : results) {
+            IntList borders = result.getBorders();
+            for (int k = 0; k < borders.size(); k += 2) {
+                int point = borders.get(k);
+                int root = ShardWorker.find(parent, borders.get(k + 1));
+                if (root < point && (labels[point] == Dbscan.NOISE || clusterOfRoot[root] < labels[point])) {
+                    labels[point] = clusterOfRoot[root];
+                }
+            }
+        }
+        return labels;
+    }
+
+    /** First rank whose distance is at least {@code value}. */
+    private static int lowerBound(double[] sorted, double value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** First rank whose distance exceeds {@code value}. */
+    private static int upperBound(double[] sorted, double value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,37 @@
+package com.mywatchcollectionhub.service.clustering.partitioned;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Where the shards of a partitioned clustering run are processed.  Selected
+ * via the {@code image.clustering.partitioned.executor} property.
+ */
+public enum ShardExecutionMode {
+
+    /** On a thread pool in the application's JVM. */
+    IN_PROCESS {
+        @Override
+        public ShardExecutor create(ExecutorService executor, String workerMaxHeap) {
+            return new InProcessShardExecutor(executor);
+        }
+    },
+
+    /** In child JVMs on the same machine, standing in for remote workers. */
+    LOCAL_PROCESSES {
+        @Override
+        public ShardExecutor create(ExecutorService executor, String workerMaxHeap) {
+            return new LocalProcessShardExecutor(executor, workerMaxHeap);
+        }
+    };
+
+    /**
+     * Create the executor.
+     *
+     * @param executor      pool the shards, or the processes running them,
+     *                      are handled on
+     * @param workerMaxHeap maximum heap of a worker process, or
+     *                      {@code null} for the JVM default
+     * @return a ready to use executor
+     */
+    public abstract ShardExecutor create(ExecutorService executor, String workerMaxHeap);
+}
@@ -0,0 +1,19 @@
+package com.mywatchcollectionhub.service.clustering.partitioned;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Runs the shards of a partitioned DBSCAN run, locally or elsewhere.
+ */
+public interface ShardExecutor {
+
+    /**
+     * Cluster every shard.
+     *
+     * @param tasks the shards
+     * @return one result per shard, in any order
+     * @throws IOException if a shard cannot be processed
+     */
+    List<ShardResult> execute(List<ShardTask> tasks) throws IOException;
+}
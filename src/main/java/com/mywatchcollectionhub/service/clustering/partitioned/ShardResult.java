@@ -0,0 +1,105 @@
+package com.mywatchcollectionhub.service.clustering.partitioned;
+
+import com.mywatchcollectionhub.service.clustering.IntList;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * What a worker reports for one {@link ShardTask}, in global point
+ * positions.
+ *
+ * <ul>
+ *   <li>The owned points that are core points.</li>
+ *   <li>Links: pairs of core points in the same local cluster.  Links
+ *       reaching into the halo are what lets the coordinator join clusters
+ *       that span shards.</li>
+ *   <li>Borders: pairs of an owned non‑core point and a core point of each
+ *       local cluster it is a neighbour of.</li>
+ * </ul>
+ */
+public final class ShardResult {
+
+    /** File signature, "WSRS". */
+    private static final int MAGIC = 0x57535253;
+
+    private final int shard;
+    private final IntList corePoints;
+    private final IntList links;
+    private final IntList borders;
+
+    /**
+     * @param shard      shard number
+     * @param corePoints owned core points
+     * @param links      flattened pairs of linked core points
+     * @param borders    flattened pairs of owned border point and core point
+     */
+    public ShardResult(int shard, IntList corePoints, IntList links, IntList borders) {
+        this.shard = shard;
+        this.corePoints = corePoints;
+        this.links = links;
+        this.borders = borders;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public IntList getCorePoints() {
+        return corePoints;
+    }
+
+    public IntList getLinks() {
+        return links;
+    }
+
+    public IntList getBorders() {
+        return borders;
+    }
+
+    /**
+     * Write the result in its binary form.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(shard);
+        write(out, corePoints);
+        write(out, links);
+        write(out, borders);
+    }
+
+    /**
+     * Read a result written by {@link #writeTo}.
+     *
+     * @param in source
+     * @return the result
+     * @throws IOException if reading fails or the data is not a result
+     */
+    public static ShardResult readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a shard result");
+        }
+        int shard = in.readInt();
+        return new ShardResult(shard, read(in), read(in), read(in));
+    }
+
+    private static void write(DataOutputStream out, IntList values) throws IOException {
+        out.writeInt(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            out.writeInt(values.get(i));
+        }
+    }
+
+    private static IntList read(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        IntList values = new IntList();
+        for (int i = 0; i < size; i++) {
+            values.add(in.readInt());
+        }
+        return values;
+    }
+}
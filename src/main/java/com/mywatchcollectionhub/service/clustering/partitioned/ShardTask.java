@@ -0,0 +1,178 @@
+package com.mywatchcollectionhub.service.clustering.partitioned;
+
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+import com.mywatchcollectionhub.service.clustering.NeighbourSearchMode;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * One shard of a partitioned DBSCAN run: the points the shard owns plus the
+ * halo of foreign points a worker needs to classify them.
+ *
+ * <p>
+ * Each point has a {@link Role}.  Owned points are classified and linked by
+ * this shard.  Inner halo points lie close enough to the owned points to be
+ * their neighbours; their core status is computed here too, so links from
+ * owned core points into the halo are known without a second round trip.
+ * Outer halo points are only present to complete the neighbourhoods of the
+ * inner halo.
+ *
+ * <p>
+ * Tasks are written to and read from a compact binary form so that they
+ * can be handed to worker processes.
+ */
+public final class ShardTask {
+
+    /** File signature, "WSTK". */
+    private static final int MAGIC = 0x5753544B;
+
+    /** Part a point plays in the shard. */
+    public enum Role {
+        OWNED, INNER_HALO, OUTER_HALO
+    }
+
+    private final int shard;
+    private final NeighbourSearchMode neighbourSearchMode;
+    private final double eps;
+    private final int minPts;
+    private final int[] globalIds;
+    private final Role[] roles;
+    private final FeatureMatrix features;
+    private final int[] weights;
+
+    /**
+     * @param shard               shard number
+     * @param neighbourSearchMode index used for the shard's neighbour queries
+     * @param eps                 epsilon radius
+     * @param minPts              minimum weight of a core neighbourhood
+     * @param globalIds           position of each local point in the full
+     *                            feature set
+     * @param roles               role of each local point
+     * @param features            one row per local point
+     * @param weights             multiplicity of each local point, or
+     *                            {@code null} for one each
+     */
+    public ShardTask(int shard, NeighbourSearchMode neighbourSearchMode, double eps, int minPts,
+                     int[] globalIds, Role[] roles, FeatureMatrix features, int[] weights) {
+        this.shard = shard;
+        this.neighbourSearchMode = neighbourSearchMode;
+        this.eps = eps;
+        this.minPts = minPts;
+        this.globalIds = globalIds;
+        this.roles = roles;
+        this.features = features;
+        this.weights = weights;
+    }
+
+    public int getShard() {
+        return shard;
+    }
+
+    public NeighbourSearchMode getNeighbourSearchMode() {
+        return neighbourSearchMode;
+    }
+
+    public double getEps() {
+        return eps;
+    }
+
+    public int getMinPts() {
+        return minPts;
+    }
+
+    /**
+     * Number of local points, owned and halo.
+     *
+     * @return point count
+     */
+    public int size() {
+        return globalIds.length;
+    }
+
+    public int[] getGlobalIds() {
+        return globalIds;
+    }
+
+    public Role[] getRoles() {
+        return roles;
+    }
+
+    public FeatureMatrix getFeatures() {
+        return features;
+    }
+
+    public int[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Write the task in its binary form.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        int n = size();
+        int dimension = features.dimension();
+        out.writeInt(MAGIC);
+        out.writeInt(shard);
+        out.writeUTF(neighbourSearchMode.name());
+        out.writeDouble(eps);
+        out.writeInt(minPts);
+        out.writeInt(n);
+        out.writeInt(dimension);
+        out.writeBoolean(weights != null);
+        float[] data = features.data();
+        for (int i = 0; i < n; i++) {
+            out.writeInt(globalIds[i]);
+            out.writeByte(roles[i].ordinal());
+            if (weights != null) {
+                out.writeInt(weights[i]);
+            }
+            int offset = features.offset(i);
+            for (int d = 0; d < dimension; d++) {
+                out.writeFloat(data[offset + d]);
+            }
+        }
+    }
+
+    /**
+     * Read a task written by {@link #writeTo}.
+     *
+     * @param in source
+     * @return the task
+     * @throws IOException if reading fails or the data is not a task
+     */
+    public static ShardTask readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a shard task");
+        }
+        int shard = in.readInt();
+        NeighbourSearchMode mode = NeighbourSearchMode.valueOf(in.readUTF());
+        double eps = in.readDouble();
+        int minPts = in.readInt();
+        int n = in.readInt();
+        int dimension = in.readInt();
+        boolean weighted = in.readBoolean();
+        int[] globalIds = new int[n];
+        Role[] roles = new Role[n];
+        int[] weights = weighted ? new int[n] : null;
+        FeatureMatrix features = new FeatureMatrix(dimension, n);
+        float[] data = features.data();
+        Role[] values = Role.values();
+        for (int i = 0; i < n; i++) {
+            globalIds[i] = in.readInt();
+            roles[i] = values[in.readByte()];
+            if (weighted) {
+                weights[i] = in.readInt();
+            }
+            int offset = features.offset(i);
+            for (int d = 0; d < dimension; d++) {
+                data[offset + d] = in.readFloat();
+            }
+        }
+        return new ShardTask(shard, mode, eps, minPts, globalIds, roles, features, weights);
+    }
+}
@@ -0,0 +1,164 @@
+package com.mywatchcollectionhub.service.clustering.partitioned;
+
+import com.mywatchcollectionhub.service.clustering.IntList;
+import com.mywatchcollectionhub.service.clustering.NeighbourIndex;
+import com.mywatchcollectionhub.service.clustering.partitioned.ShardTask.Role;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Clusters one shard locally.  Runs inside the application for in‑process
+ * execution, or as the main class of a worker process that reads a task
+ * file and writes a result file.
+ *
+ * <p>
+ * The worker decides which owned and inner halo points are core points,
+ * joins owned core points with their core neighbours in a local union‑find,
+ * and reports the links and, for each owned non‑core point, the local
+ * clusters it borders.  It assigns no cluster ids; numbering needs the
+ * global picture and is left to {@link PartitionedDbscan}.
+ */
+public final class ShardWorker {
+
+    private ShardWorker() {
+    }
+
+    /**
+     * Cluster a shard.
+     *
+     * @param task the shard
+     * @return what the coordinator needs to merge the shard
+     */
+    public static ShardResult process(ShardTask task) {
+        int n = task.size();
+        int[] globalIds = task.getGlobalIds();
+        Role[] roles = task.getRoles();
+        int[] weights = task.getWeights();
+        NeighbourIndex index = task.getNeighbourSearchMode().build(task.getFeatures(), task.getEps());
+        IntList neighbours = new IntList();
+
+        boolean[] core = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            if (roles[i] != Role.OUTER_HALO) {
+                index.neighbours(i, neighbours);
+                core[i] = weight(neighbours, weights) >= task.getMinPts();
+            }
+        }
+
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        boolean[] linked = new boolean[n];
+        IntList corePoints = new IntList();
+        IntList borders = new IntList();
+        IntList borderRoots = new IntList();
+        for (int i = 0; i < n; i++) {
+            if (roles[i] != Role.OWNED || !core[i]) {
+                continue;
+            }
+            corePoints.add(globalIds[i]);
+            linked[i] = true;
+            index.neighbours(i, neighbours);
+            for (int k = 0; k < neighbours.size(); k++) {
+                int j = neighbours.get(k);
+                if (core[j]) {
+                    union(parent, i, j);
+                    linked[j] = true;
+                }
+            }
+        }
+        IntList links = new IntList();
+        for (int i = 0; i < n; i++) {
+            if (linked[i]) {
+                links.add(globalIds[i]);
+                links.add(globalIds[find(parent, i)]);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (roles[i] != Role.OWNED || core[i]) {
+                continue;
+            }
+            index.neighbours(i, neighbours);
+            borderRoots.clear();
+            for (int k = 0; k < neighbours.size(); k++) {
+                int j = neighbours.get(k);
+                if (core[j]) {
+                    int root = find(parent, j);
+                    if (!contains(borderRoots, root)) {
+                        borderRoots.add(root);
+                        borders.add(globalIds[i]);
+                        borders.add(globalIds[root]);
+                    }
+                }
+            }
+        }
+        return new ShardResult(task.getShard(), corePoints, links, borders);
+    }
+
+    /**
+     * Worker process entry point.
+     *
+     * @param args task file and result file
+     * @throws IOException if either file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ShardWorker <task file> <result file>");
+            System.exit(2);
+        }
+        ShardTask task;
+        Path source = Paths.get(args[0]);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            task = ShardTask.readFrom(in);
+        }
+        ShardResult result = process(task);
+        Path target = Paths.get(args[1]);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target)))) {
+            result.writeTo(out);
+        }
+    }
+
+    private static int weight(IntList points, int[] weights) {
+        if (weights == null) {
+            return points.size();
+        }
+        int total = 0;
+        for (int k = 0; k < points.size(); k++) {
+            total += weights[points.get(k)];
+        }
+        return total;
+    }
+
+    private static boolean contains(IntList values, int value) {
+        for (int k = 0; k < values.size(); k++) {
+            if (values.get(k) == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra != rb) {
+            parent[Math.max(ra, rb)] = Math.min(ra, rb);
+        }
+    }
+}
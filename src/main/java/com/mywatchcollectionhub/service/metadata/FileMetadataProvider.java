@@ -0,0 +1,117 @@
+package com.mywatchcollectionhub.service.metadata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Offline {@link MetadataProvider} answering from a tab separated file, for
+ * local development and tests without network access.
+ *
+ * <p>
+ * Each non‑blank line not starting with {@code #} holds brand, model, year,
+ * resale value and description separated by tabs.  The year may be left
+ * empty (or {@code -}) for data that applies to every year; a lookup with a
+ * year falls back to such a row.  The file is read once, on first lookup.
+ * It is queried after any online providers.  The bundled file holds sample
+ * data, so the provider is disabled unless
+ * {@code metadata.offline.enabled} is set.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class FileMetadataProvider implements MetadataProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileMetadataProvider.class);
+
+    @Value("${metadata.offline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${metadata.offline.location:classpath:metadata/offline-watch-metadata.tsv}")
+    private Resource location;
+
+    @Value("${metadata.offline.max-requests-per-second:0}")
+    private double maxRequestsPerSecond;
+
+    private Map<WatchKey, WatchDetails> entries;
+
+    @Override
+    public String getName() {
+        return "offline-file";
+    }
+
+    @Override
+    public double getMaxRequestsPerSecond() {
+        return maxRequestsPerSecond;
+    }
+
+    @Override
+    public Optional<WatchDetails> lookup(WatchKey key) throws IOException {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Map<WatchKey, WatchDetails> data = entries();
+        WatchDetails details = data.get(key);
+        if (details == null) {
+            details = data.get(key.withoutYear());
+        }
+        return Optional.ofNullable(details);
+    }
+
+    private synchronized Map<WatchKey, WatchDetails> entries() throws IOException {
+        if (entries != null) {
+            return entries;
+        }
+        Map<WatchKey, WatchDetails> loaded = new HashMap<>();
+        if (location == null || !location.exists()) {
+            logger.info("Offline metadata file {} not found; offline lookups find nothing", location);
+            entries = loaded;
+            return entries;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length < 2) {
+                    logger.warn("Skipping malformed line {} of {}", lineNumber, location);
+                    continue;
+                }
+                try {
+                    Integer year = field(fields, 2) != null ? Integer.valueOf(field(fields, 2)) : null;
+                    Double value = field(fields, 3) != null ? Double.valueOf(field(fields, 3)) : null;
+                    loaded.put(new WatchKey(fields[0], fields[1], year), new WatchDetails(field(fields, 4), value));
+                } catch (NumberFormatException e) {
+                    logger.warn("Skipping malformed line {} of {}: {}", lineNumber, location, e.getMessage());
+                }
+            }
+        }
+        logger.info("Loaded {} offline metadata entries from {}", loaded.size(), location);
+        entries = loaded;
+        return entries;
+    }
+
+    private static String field(String[] fields, int index) {
+        if (index >= fields.length) {
+            return null;
+        }
+        String value = fields[index].trim();
+        return value.isEmpty() || value.equals("-") ? null : value;
+    }
+}
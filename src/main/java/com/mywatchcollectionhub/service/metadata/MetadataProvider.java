@@ -0,0 +1,41 @@
+package com.mywatchcollectionhub.service.metadata;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Source of watch metadata such as a watch database, a marketplace price
+ * index or an offline file.  Providers are Spring beans; the metadata
+ * service queries them in {@link org.springframework.core.annotation.Order}
+ * order and uses the first non‑empty result.
+ *
+ * <p>
+ * Implementations may block; the service calls them concurrently from the
+ * I/O executor, spaces calls to honour {@link #getMaxRequestsPerSecond()}
+ * and abandons lookups that exceed the lookup timeout.
+ */
+public interface MetadataProvider {
+
+    /**
+     * Short name used in logs.
+     *
+     * @return provider name
+     */
+    String getName();
+
+    /**
+     * Highest call rate the provider accepts.
+     *
+     * @return calls per second, or zero for no limit
+     */
+    double getMaxRequestsPerSecond();
+
+    /**
+     * Look up a watch.
+     *
+     * @param key brand, model and optional year
+     * @return the details, or empty if the provider does not know the watch
+     * @throws IOException if the provider cannot be reached
+     */
+    Optional<WatchDetails> lookup(WatchKey key) throws IOException;
+}
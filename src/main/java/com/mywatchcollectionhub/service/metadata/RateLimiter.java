@@ -0,0 +1,47 @@
+package com.mywatchcollectionhub.service.metadata;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Spaces calls evenly so that at most a given number start per second.
+ * Callers that would start early sleep until their slot; no burst is
+ * allowed beyond one call.
+ */
+public final class RateLimiter {
+    private final long intervalNanos;
+    private long nextSlot = System.nanoTime();
+
+    /**
+     * @param perSecond permitted calls per second; zero or less disables
+     *                  the limit
+     */
+    public RateLimiter(double perSecond) {
+        this.intervalNanos = perSecond > 0 ? (long) (1_000_000_000L / perSecond) : 0;
+    }
+
+    /**
+     * Wait for the next free slot.
+     *
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedIOException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSlot);
+            nextSlot = slot + intervalNanos;
+            wait = slot - now;
+        }
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait / 1_000_000L, (int) (wait % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a metadata lookup slot");
+            }
+        }
+    }
+}
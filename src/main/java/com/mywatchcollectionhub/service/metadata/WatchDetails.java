@@ -0,0 +1,35 @@
+package com.mywatchcollectionhub.service.metadata;
+
+/**
+ * Metadata found for a watch by a {@link MetadataProvider}.  Either field may
+ * be {@code null} when the provider does not know it.
+ */
+public final class WatchDetails {
+    /** Result recorded when no provider knows the watch. */
+    public static final WatchDetails NONE = new WatchDetails(null, null);
+
+    private final String description;
+    private final Double resaleValue;
+
+    public WatchDetails(String description, Double resaleValue) {
+        this.description = description;
+        this.resaleValue = resaleValue;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Double getResaleValue() {
+        return resaleValue;
+    }
+
+    /**
+     * Whether the details carry no information.
+     *
+     * @return {@code true} if both fields are {@code null}
+     */
+    public boolean isEmpty() {
+        return description == null && resaleValue == null;
+    }
+}
@@ -0,0 +1,85 @@
+package com.mywatchcollectionhub.service.metadata;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Identity of a watch for metadata lookups: brand, model and optional year.
+ * Brand and model are compared case insensitively and with surrounding
+ * whitespace ignored, so "Rolex Submariner" and "rolex  submariner " share
+ * one lookup and one cache entry.
+ */
+public final class WatchKey {
+    private final String brand;
+    private final String model;
+    private final Integer year;
+
+    public WatchKey(String brand, String model, Integer year) {
+        this.brand = normalise(brand);
+        this.model = normalise(model);
+        this.year = year;
+    }
+
+    /**
+     * Lower cased brand, or {@code null}.
+     *
+     * @return brand
+     */
+    public String getBrand() {
+        return brand;
+    }
+
+    /**
+     * Lower cased model, or {@code null}.
+     *
+     * @return model
+     */
+    public String getModel() {
+        return model;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    /**
+     * The same watch without a year, used to fall back to year independent
+     * data.
+     *
+     * @return key without year
+     */
+    public WatchKey withoutYear() {
+        return year == null ? this : new WatchKey(brand, model, null);
+    }
+
+    private static String normalise(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim().replaceAll("\\s+", " ");
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WatchKey)) {
+            return false;
+        }
+        WatchKey other = (WatchKey) o;
+        return Objects.equals(brand, other.brand) && Objects.equals(model, other.model)
+                && Objects.equals(year, other.year);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(brand, model, year);
+    }
+
+    @Override
+    public String toString() {
+        return brand + "/" + model + (year != null ? "/" + year : "");
+    }
+}
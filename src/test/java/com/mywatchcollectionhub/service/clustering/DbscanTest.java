@@ -0,0 +1,149 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the array based {@link Dbscan} against a plain list based DBSCAN
+ * with brute force neighbour queries, the implementation it replaced.
+ */
+class DbscanTest {
+
+    @Test
+    void matchesReferenceOnRandomPoints() {
+        Random random = new Random(24);
+        for (int run = 0; run < 60; run++) {
+            int n = 1 + random.nextInt(300);
+            int dimension = 1 + random.nextInt(4);
+            FeatureMatrix features = new FeatureMatrix(dimension, n);
+            for (int i = 0; i < n; i++) {
+                float[] row = new float[dimension];
+                for (int k = 0; k < dimension; k++) {
+                    // Few distinct coordinates give many points at exactly eps.
+                    row[k] = random.nextInt(20) * 0.25f;
+                }
+                features.set(i, row);
+            }
+            double eps = 0.25 * (1 + random.nextInt(4));
+            int minPts = 1 + random.nextInt(6);
+            int[] weights = run % 2 == 0 ? null : random.ints(n, 1, 4).toArray();
+            for (NeighbourSearchMode mode : NeighbourSearchMode.values()) {
+                int[] actual = new Dbscan(mode.build(features, eps), n, weights, minPts).run();
+                assertArrayEquals(reference(features, weights, eps, minPts), actual,
+                        mode + " run " + run + " with eps " + eps + " and minPts " + minPts);
+            }
+        }
+    }
+
+    @Test
+    void borderPointReachableFromTwoClustersJoinsTheFirstDiscovered() {
+        // Two clusters on a line with a border point at 2.0 within eps of a
+        // core point of each.  Cluster C is listed first, so it is
+        // discovered first and claims the border point.
+        float[] c = {3.0f, 3.5f, 4.0f, 4.5f, 5.0f};
+        float[] a = {-1.0f, -0.5f, 0.0f, 0.5f, 1.0f};
+        FeatureMatrix features = line(c, a, new float[] {2.0f});
+        int[] labels = run(features);
+        assertEquals(0, labels[0]);
+        assertEquals(1, labels[c.length + 2]);
+        assertEquals(0, labels[features.size() - 1]);
+        assertArrayEquals(reference(features, null, 1.0, 4), labels);
+    }
+
+    @Test
+    void borderPointVisitedBeforeAnyClusterStaysNoise() {
+        FeatureMatrix features = line(new float[] {2.0f}, new float[] {3.0f, 3.5f, 4.0f, 4.5f, 5.0f},
+                new float[] {-1.0f, -0.5f, 0.0f, 0.5f, 1.0f});
+        int[] labels = run(features);
+        assertEquals(Dbscan.NOISE, labels[0]);
+        assertArrayEquals(reference(features, null, 1.0, 4), labels);
+    }
+
+    private static int[] run(FeatureMatrix features) {
+        return new Dbscan(NeighbourSearchMode.VP_TREE.build(features, 1.0), features.size(), null, 4).run();
+    }
+
+    private static FeatureMatrix line(float[]... groups) {
+        FeatureMatrix features = new FeatureMatrix(1, 0);
+        for (float[] group : groups) {
+            for (float x : group) {
+                features.add(new float[] {x});
+            }
+        }
+        return features;
+    }
+
+    /**
+     * Textbook DBSCAN: a point first visited as noise stays noise, and a
+     * border point keeps the first cluster that reaches it.
+     */
+    private static int[] reference(FeatureMatrix features, int[] weights, double eps, int minPts) {
+        int n = features.size();
+        float eps2 = (float) (eps * eps);
+        int[] labels = new int[n];
+        Arrays.fill(labels, Integer.MIN_VALUE);
+        boolean[] visited = new boolean[n];
+        int clusterId = 0;
+        for (int i = 0; i < n; i++) {
+            if (visited[i]) {
+                continue;
+            }
+            visited[i] = true;
+            int[] neighbours = region(features, i, eps2);
+            if (weight(neighbours, weights) < minPts) {
+                labels[i] = Dbscan.NOISE;
+                continue;
+            }
+            labels[i] = clusterId;
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int p : neighbours) {
+                queue.add(p);
+            }
+            while (!queue.isEmpty()) {
+                int current = queue.poll();
+                if (!visited[current]) {
+                    visited[current] = true;
+                    int[] next = region(features, current, eps2);
+                    if (weight(next, weights) >= minPts) {
+                        for (int p : next) {
+                            queue.add(p);
+                        }
+                    }
+                }
+                if (labels[current] == Integer.MIN_VALUE) {
+                    labels[current] = clusterId;
+                }
+            }
+            clusterId++;
+        }
+        return labels;
+    }
+
+    private static int[] region(FeatureMatrix features, int point, float eps2) {
+        IntList result = new IntList();
+        for (int j = 0; j < features.size(); j++) {
+            if (FeatureVectors.squaredDistance(features, point, j) <= eps2) {
+                result.add(j);
+            }
+        }
+        return result.toArray();
+    }
+
+    private static int weight(int[] points, int[] weights) {
+        if (weights == null) {
+            return points.length;
+        }
+        int total = 0;
+        for (int p : points) {
+            total += weights[p];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,74 @@
+package com.mywatchcollectionhub.service.clustering;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Checks that the vantage‑point tree answers every range query exactly as
+ * the brute force reference does.
+ */
+class VpTreeNeighbourIndexTest {
+
+    @Test
+    void matchesBruteForceOnRandomPoints() {
+        Random random = new Random(42);
+        for (int run = 0; run < 40; run++) {
+            int n = 1 + random.nextInt(400);
+            int dimension = 1 + random.nextInt(24);
+            FeatureMatrix features = new FeatureMatrix(dimension, n);
+            for (int i = 0; i < n; i++) {
+                float[] row = new float[dimension];
+                if (i > 0 && random.nextInt(10) == 0) {
+                    // Exact duplicates put several points at distance zero.
+                    row = features.row(random.nextInt(i));
+                } else {
+                    for (int k = 0; k < dimension; k++) {
+                        row[k] = random.nextFloat();
+                    }
+                }
+                features.set(i, row);
+            }
+            double eps = 0.05 + random.nextDouble() * Math.sqrt(dimension) / 2;
+            assertSameNeighbours(features, eps, random);
+        }
+    }
+
+    @Test
+    void includesPointsExactlyOnTheRadius() {
+        // Integer grid: every horizontal and vertical neighbour lies at
+        // exactly eps, diagonal ones just outside it.
+        int side = 12;
+        FeatureMatrix features = new FeatureMatrix(2, side * side);
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                features.set(x * side + y, new float[] {x, y});
+            }
+        }
+        assertSameNeighbours(features, 1.0, new Random(7));
+    }
+
+    private static void assertSameNeighbours(FeatureMatrix features, double eps, Random random) {
+        NeighbourIndex expected = NeighbourSearchMode.BRUTE_FORCE.build(features, eps);
+        NeighbourIndex actual = NeighbourSearchMode.VP_TREE.build(features, eps);
+        IntList list = new IntList();
+        for (int i = 0; i < features.size(); i++) {
+            int[] want = expected.neighbours(i);
+            assertArrayEquals(want, actual.neighbours(i), "neighbours of point " + i);
+            actual.neighbours(i, list);
+            assertArrayEquals(want, list.toArray(), "listed neighbours of point " + i);
+            assertArrayEquals(expected.neighboursOf(features.row(i)), actual.neighboursOf(features.row(i)));
+        }
+        float[] query = new float[features.dimension()];
+        for (int q = 0; q < 20; q++) {
+            for (int k = 0; k < query.length; k++) {
+                query[k] = random.nextFloat() * 2 - 0.5f;
+            }
+            double radius = random.nextDouble() * 2 * eps;
+            assertArrayEquals(expected.neighboursOf(query, radius), actual.neighboursOf(query, radius),
+                    "neighbours within " + radius);
+        }
+    }
+}
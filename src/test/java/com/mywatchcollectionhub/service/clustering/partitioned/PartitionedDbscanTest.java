@@ -0,0 +1,108 @@
+package com.mywatchcollectionhub.service.clustering.partitioned;
+
+import com.mywatchcollectionhub.service.clustering.Dbscan;
+import com.mywatchcollectionhub.service.clustering.FeatureMatrix;
+import com.mywatchcollectionhub.service.clustering.NeighbourSearchMode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a partitioned run labels every point exactly as a single
+ * {@link Dbscan} run does.
+ */
+class PartitionedDbscanTest {
+
+    private static ExecutorService pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void matchesSingleRunOnRandomPoints() throws IOException {
+        Random random = new Random(25);
+        for (int run = 0; run < 30; run++) {
+            int n = 200 + random.nextInt(1500);
+            FeatureMatrix features = new FeatureMatrix(2, n);
+            for (int i = 0; i < n; i++) {
+                features.set(i, new float[] {random.nextFloat() * 40, random.nextFloat() * 2});
+            }
+            double eps = 0.2 + random.nextDouble() * 0.4;
+            int minPts = 2 + random.nextInt(5);
+            int[] weights = run % 2 == 0 ? null : random.ints(n, 1, 3).toArray();
+            assertSameLabels(features, weights, eps, minPts, 4 + random.nextInt(7), true);
+        }
+    }
+
+    @Test
+    void matchesSingleRunWithPointsOnShardBoundaries() throws IOException {
+        // Coarse coordinates along a line: shards are cut by rank, so runs
+        // of equal pivot distance are split between shards, and clusters,
+        // border points and noise all straddle the cuts.
+        Random random = new Random(26);
+        for (int run = 0; run < 30; run++) {
+            int n = 300 + random.nextInt(700);
+            FeatureMatrix features = new FeatureMatrix(1, n);
+            for (int i = 0; i < n; i++) {
+                features.set(i, new float[] {random.nextInt(200) * 0.25f});
+            }
+            double eps = 0.25 * (1 + random.nextInt(3));
+            int minPts = 2 + random.nextInt(8);
+            assertSameLabels(features, null, eps, minPts, 4 + random.nextInt(7), true);
+        }
+    }
+
+    @Test
+    void fallsBackToOneShardWhenHalosCoverTheRange() throws IOException {
+        // Unit vectors are at most sqrt(2) apart, so a 2*eps halo of 1.0
+        // reaches nearly every point from any shard.
+        Random random = new Random(27);
+        int n = 2000;
+        int dimension = 16;
+        FeatureMatrix features = new FeatureMatrix(dimension, n);
+        for (int i = 0; i < n; i++) {
+            float[] row = new float[dimension];
+            double norm = 0;
+            for (int k = 0; k < dimension; k++) {
+                row[k] = random.nextFloat();
+                norm += row[k] * row[k];
+            }
+            for (int k = 0; k < dimension; k++) {
+                row[k] /= (float) Math.sqrt(norm);
+            }
+            features.set(i, row);
+        }
+        assertSameLabels(features, null, 0.5, 3, 8, false);
+    }
+
+    private static void assertSameLabels(FeatureMatrix features, int[] weights, double eps, int minPts,
+                                         int shards, boolean expectSharded) throws IOException {
+        PartitionedDbscan partitioned = new PartitionedDbscan(NeighbourSearchMode.VP_TREE, eps, minPts, shards);
+        int tasks = partitioned.partition(features, weights).size();
+        if (expectSharded) {
+            assertTrue(tasks > 1, "expected the points to be sharded");
+        } else {
+            assertEquals(1, tasks);
+        }
+        int[] expected = new Dbscan(NeighbourSearchMode.BRUTE_FORCE.build(features, eps), features.size(),
+                weights, minPts).run();
+        int[] actual = partitioned.run(features, weights, new InProcessShardExecutor(pool));
+        assertArrayEquals(expected, actual, shards + " shards with eps " + eps + " and minPts " + minPts);
+    }
+}